@@ -4,14 +4,21 @@
 
 package com.strongjoshua.console;
 
+import java.util.function.Supplier;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.strongjoshua.console.log.Log;
 import com.strongjoshua.console.log.LogConverter;
+import com.strongjoshua.console.log.LogEntry;
 import com.strongjoshua.console.log.LogLevel;
+import com.strongjoshua.console.log.LogSink;
+import com.strongjoshua.console.log.LogSnapshot;
 
 /** @author Eric */
 public abstract class AbstractConsole implements Console, Disposable {
@@ -19,13 +26,23 @@ public abstract class AbstractConsole implements Console, Disposable {
 	protected boolean logToSystem;
 
 	protected boolean disabled;
+	protected LogLevel minLogLevel = LogLevel.DEFAULT;
 
 	protected boolean executeHiddenCommands = true;
 	protected boolean displayHiddenCommands = false;
 	protected boolean consoleTrace = false;
-	protected Array<LogConverter> logConverters;
+	/**
+	 * Never changed once published, {@link #addLogConverter(LogConverter)}
+	 * replaces the array, so threads logging concurrently can iterate it by index
+	 * without locking.
+	 */
+	protected volatile Array<LogConverter> logConverters;
+	/** Copied on change like {@link #logConverters}. */
+	protected volatile Array<LogSink> logSinks;
 
-	private CommandManager commandManager;
+	private CommandManager commandManager = new DefaultCommandManager();
+	private final Array<CommandLine> commandLines = new Array<>();
+	private int commandDepth;
 
 	public AbstractConsole() {
 		log = new Log();
@@ -48,12 +65,23 @@ public abstract class AbstractConsole implements Console, Disposable {
 	 */
 	@Override
 	public void log(String msg, LogLevel level) {
-		if (logConverters != null && logConverters.size > 0) {
-			for (LogConverter lc : logConverters) {
-				msg = lc.convert(msg);
+		if (!isLoggable(level))
+			return;
+		Array<LogConverter> converters = logConverters;
+		if (converters != null) {
+			// by index, the array's iterator is shared by all threads
+			for (int i = 0; i < converters.size; i++) {
+				msg = converters.get(i).convert(msg);
 			}
 		}
-		log.addEntry(msg, level);
+		Array<LogSink> sinks = logSinks;
+		if (sinks != null && sinks.size > 0) {
+			long timeStamp = TimeUtils.millis();
+			for (int i = 0; i < sinks.size; i++) {
+				sinks.get(i).write(msg, level, timeStamp);
+			}
+		}
+		appendEntry(msg, level);
 
 		if (logToSystem) {
 			switch (level) {
@@ -67,6 +95,18 @@ public abstract class AbstractConsole implements Console, Disposable {
 		}
 	}
 
+	/**
+	 * Stores an already converted message. Called by {@link #log(String, LogLevel)}
+	 * on the logging thread, adds the entry to the {@link Log} directly by
+	 * default.
+	 *
+	 * @param msg   The converted message.
+	 * @param level The {@link LogLevel} of the log entry.
+	 */
+	protected void appendEntry(String msg, LogLevel level) {
+		log.addEntry(msg, level);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -85,7 +125,8 @@ public abstract class AbstractConsole implements Console, Disposable {
 	 */
 	@Override
 	public void log(Exception exception, LogLevel level) {
-		this.log(ConsoleUtils.exceptionToString(exception), level);
+		if (isLoggable(level))
+			this.log(ConsoleUtils.exceptionToString(exception), level);
 	}
 
 	/**
@@ -98,6 +139,47 @@ public abstract class AbstractConsole implements Console, Disposable {
 		this.log(exception, LogLevel.ERROR);
 	}
 
+	@Override
+	public void log(LogLevel level, String pattern, Object... args) {
+		if (isLoggable(level))
+			this.log(ConsoleUtils.formatMessage(pattern, args), level);
+	}
+
+	@Override
+	public void log(LogLevel level, String pattern, Object arg) {
+		if (isLoggable(level))
+			this.log(ConsoleUtils.formatMessage(pattern, arg), level);
+	}
+
+	@Override
+	public void log(LogLevel level, String pattern, Object arg1, Object arg2) {
+		if (isLoggable(level))
+			this.log(ConsoleUtils.formatMessage(pattern, arg1, arg2), level);
+	}
+
+	@Override
+	public void log(LogLevel level, Supplier<String> message) {
+		if (isLoggable(level))
+			this.log(message.get(), level);
+	}
+
+	@Override
+	public boolean isLoggable(LogLevel level) {
+		return !disabled && level.getPriority() >= minLogLevel.getPriority();
+	}
+
+	@Override
+	public void setMinLogLevel(LogLevel level) {
+		if (level == null)
+			throw new IllegalArgumentException("Minimum log level cannot be null.");
+		this.minLogLevel = level;
+	}
+
+	@Override
+	public LogLevel getMinLogLevel() {
+		return minLogLevel;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -115,13 +197,53 @@ public abstract class AbstractConsole implements Console, Disposable {
 	 */
 	@Override
 	public void printLogToFile(FileHandle fh) {
-		if (log.printToFile(fh)) {
+		this.printLogToFile(fh, false);
+	}
+
+	@Override
+	public void printLogToFile(String file, boolean append) {
+		this.printLogToFile(Gdx.files.local(file), append);
+	}
+
+	@Override
+	public void printLogToFile(FileHandle fh, boolean append) {
+		if (log.printToFile(fh, append)) {
 			log("Successfully wrote logs to file.", LogLevel.SUCCESS);
 		} else {
 			log("Unable to write logs to file.", LogLevel.ERROR);
 		}
 	}
 
+	/**
+	 * Takes the snapshot from the log directly, so this must be called on the
+	 * thread that logs to this console.
+	 */
+	@Override
+	public LogSnapshot getLogSnapshot() {
+		return log.snapshot();
+	}
+
+	@Override
+	public Array<LogEntry> findLogEntries(String query) {
+		LongArray sequences = new LongArray();
+		log.find(query, sequences);
+		Array<LogEntry> entries = new Array<LogEntry>(sequences.size);
+		for (int i = 0; i < sequences.size; i++) {
+			entries.add(log.getBySequence(sequences.get(i)));
+		}
+		return entries;
+	}
+
+	@Override
+	public long getFirstSequence() {
+		return log.getFirstSequence();
+	}
+
+	@Override
+	public long getNextSequence() {
+		return log.getNextSequence();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -153,24 +275,29 @@ public abstract class AbstractConsole implements Console, Disposable {
 			return;
 
 		log(commandStr, LogLevel.COMMAND);
-		String[] parts = commandStr.split(" ");
-		String name = "";
-		String params = "";
-		if (parts.length >= 1) {
-			name = parts[0];
+		// commands may execute commands themselves, each nested call gets its own line
+		if (commandDepth == commandLines.size) {
+			commandLines.add(new CommandLine());
 		}
-
-		for (int i = 1; i < parts.length; ++i) {
-			params += parts[i];
+		CommandLine line = commandLines.get(commandDepth);
+		if (!line.parse(commandStr)) {
+			log("Unterminated quote.", LogLevel.ERROR);
+			return;
 		}
 
-		Command command = commandManager.getCommand(name);
+		CharSequence name = line.size() > 0 ? line.get(0) : "";
+		Command command = commandManager.getCommand(name, 0, name.length());
 		if (command == null) {
 			log("Command does not exist.");
 			return;
 		}
 
-		command.execute(params);
+		commandDepth++;
+		try {
+			command.execute(line);
+		} finally {
+			commandDepth--;
+		}
 	}
 
 	@Override
@@ -239,6 +366,17 @@ public abstract class AbstractConsole implements Console, Disposable {
 		this.consoleTrace = enabled;
 	}
 
+	/**
+	 * Gives access to the log's settings, e.g. {@link Log#setPooled(boolean)}.
+	 * For a GUI console, the log must only be accessed on the thread that draws
+	 * the console.
+	 *
+	 * @return The {@link Log} holding this console's entries.
+	 */
+	public Log getLog() {
+		return log;
+	}
+
 	@Override
 	public void setCommandManager(CommandManager commandManager) {
 		this.commandManager = commandManager;
@@ -308,8 +446,19 @@ public abstract class AbstractConsole implements Console, Disposable {
 		return false;
 	}
 
+	/** Flushes and disposes all {@link LogSink}s. */
 	@Override
 	public void dispose() {
+		Array<LogSink> sinks;
+		synchronized (this) {
+			sinks = logSinks;
+			logSinks = null;
+		}
+		if (sinks != null) {
+			for (int i = 0; i < sinks.size; i++) {
+				sinks.get(i).dispose();
+			}
+		}
 	}
 
 	@Override
@@ -339,9 +488,26 @@ public abstract class AbstractConsole implements Console, Disposable {
 	}
 
 	@Override
-	public void addLogConverter(LogConverter converter) {
-		if (logConverters == null)
-			logConverters = new Array<LogConverter>();
-		logConverters.add(converter);
+	public synchronized void addLogConverter(LogConverter converter) {
+		Array<LogConverter> converters = logConverters == null ? new Array<LogConverter>()
+				: new Array<LogConverter>(logConverters);
+		converters.add(converter);
+		logConverters = converters;
+	}
+
+	@Override
+	public synchronized void addLogSink(LogSink sink) {
+		Array<LogSink> sinks = logSinks == null ? new Array<LogSink>() : new Array<LogSink>(logSinks);
+		sinks.add(sink);
+		logSinks = sinks;
+	}
+
+	@Override
+	public synchronized void removeLogSink(LogSink sink) {
+		if (logSinks != null && logSinks.contains(sink, true)) {
+			Array<LogSink> sinks = new Array<LogSink>(logSinks);
+			sinks.removeValue(sink, true);
+			logSinks = sinks;
+		}
 	}
 }
@@ -4,126 +4,240 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.reflect.Annotation;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Constructor;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.strongjoshua.console.annotation.ConsoleDoc;
+import com.strongjoshua.console.annotation.HiddenCommand;
 import com.strongjoshua.console.log.LogLevel;
 
+/**
+ * Creates a {@link Command} for each method name of a {@link CommandExecutor}.
+ * <p>
+ * The methods behind a command are resolved once, when the commands are
+ * created, into a dispatch table from the number of arguments to the
+ * overloads taking that many arguments. Each overload keeps an
+ * {@link ArgumentConverter} per parameter and is made accessible up front, so
+ * executing a command does not look up anything through reflection. The table
+ * is resolved again only after the executor or a converter changed, see
+ * {@link #setCommandExecutor(CommandExecutor)} and
+ * {@link #setConverter(Class, ArgumentConverter)}.
+ * <p>
+ * Where the platform supports it, each method is invoked through a class
+ * generated for it by the lambda metafactory, which calls the method directly.
+ * Elsewhere, e.g. on GWT and Android, and for methods a generated class can't
+ * call, methods are invoked through libGDX's reflection.
+ */
 public class AnnotationCommandCreator {
+	/** Invokes methods through {@link Method#invoke(Object, Object...)}, available on all platforms. */
+	static final CommandInvoker.Factory REFLECTION_INVOKERS = new CommandInvoker.Factory() {
+		@Override
+		public CommandInvoker create(Method method) {
+			return new ReflectionInvoker(method);
+		}
+	};
+	private static final CommandInvoker.Factory INVOKERS = createInvokers();
+
 	private CommandExecutor exec;
 	private Console console;
 	private boolean consoleTrace;
+	private final ArgumentConverters converters = new ArgumentConverters();
+	/** Incremented whenever the executor or a converter changes, commands resolved before resolve their methods again. */
+	private int generation;
 
 	public AnnotationCommandCreator(CommandExecutor exec, Console console) {
-		this.exec = exec;
 		this.console = console;
+		setCommandExecutor(exec);
 	}
 
 	public void setCommandExecutor(CommandExecutor exec) {
 		this.exec = exec;
+		exec.setConsole(console);
+		generation++;
+	}
+
+	/**
+	 * Lets commands take parameters of the given type, or replaces the
+	 * converter for a type, e.g. to parse integers as hex. Commands created
+	 * before pick up the converter on their next execution.
+	 */
+	public <T> void setConverter(Class<T> type, ArgumentConverter<? extends T> converter) {
+		converters.put(type, converter);
+		generation++;
+	}
+
+	/**
+	 * A method of the executor with the converters for its parameters.
+	 */
+	private static class CommandMethod {
+		final CommandInvoker invoker;
+		final ArgumentConverter<?>[] converters;
+		final boolean hidden;
+
+		CommandMethod(Method method, ArgumentConverter<?>[] converters) {
+			this.converters = converters;
+			hidden = method.isAnnotationPresent(HiddenCommand.class);
+			CommandInvoker invoker;
+			try {
+				invoker = INVOKERS.create(method);
+			} catch (ReflectionException e) {
+				invoker = new ReflectionInvoker(method);
+			}
+			this.invoker = invoker;
+		}
+	}
+
+	private static class ReflectionInvoker implements CommandInvoker {
+		private final Method method;
+
+		ReflectionInvoker(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			method.invoke(target, args);
+		}
 	}
 
 	private class AnntationCommand extends CommandAdapter {
 		private Method m;
+		/** Overloads of this command, indexed by their number of parameters. */
+		private IntMap<Array<CommandMethod>> dispatch;
+		private int dispatchGeneration;
 
 		@Override
 		public void execute(String paramStr) {
-			String[] parts = paramStr.split(" ");
-			String methodName = parts[0];
-			String[] sArgs = null;
-			if (parts.length > 1) {
-				sArgs = new String[parts.length - 1];
-				for (int i = 1; i < parts.length; i++) {
-					sArgs[i - 1] = parts[i];
-				}
+			CommandLine line = new CommandLine();
+			if (paramStr != null && !line.parse(paramStr)) {
+				console.log("Unterminated quote.", LogLevel.ERROR);
+				return;
+			}
+			execute(line, 0);
+		}
+
+		@Override
+		public void execute(CommandLine line) {
+			execute(line, 1);
+		}
+
+		/**
+		 * @param first Index of the first argument in the command line.
+		 */
+		private void execute(CommandLine line, int first) {
+			if (dispatchGeneration != generation) {
+				resolve();
 			}
 
-			Class<? extends CommandExecutor> clazz = exec.getClass();
-			Method[] methods = ClassReflection.getMethods(clazz);
-			Array<Integer> possible = new Array<Integer>();
-			for (int i = 0; i < methods.length; i++) {
-				Method method = methods[i];
-				if (method.getName().equalsIgnoreCase(methodName)
-						&& ConsoleUtils.canExecuteCommand(console, method)) {
-					possible.add(i);
+			int numArgs = line.size() - first;
+			Array<CommandMethod> overloads = dispatch.get(numArgs);
+			boolean executable = console.isExecuteHiddenCommandsEnabled();
+			boolean found = false;
+			if (overloads != null) {
+				for (CommandMethod overload : overloads) {
+					if (overload.hidden && !executable) {
+						continue;
+					}
+					found = true;
+					Object[] args = convert(overload, line, first);
+					if (args == null) {
+						// an argument doesn't fit this overload, continue
+						// to next function
+						continue;
+					}
+					invoke(overload.invoker, args);
+					return;
 				}
 			}
 
-			if (possible.size <= 0) {
+			if (!found && !hasExecutableMethod(executable)) {
 				console.log("No such method found.", LogLevel.ERROR);
 				return;
 			}
+			console.log("Bad parameters. Check your code.", LogLevel.ERROR);
+		}
+
+		/**
+		 * Builds the dispatch table from the methods of the current executor.
+		 */
+		void resolve() {
+			dispatch = new IntMap<>();
+			for (Method method : getAllMethods()) {
+				if (method.getName().equalsIgnoreCase(getName())) {
+					addMethod(method);
+				}
+			}
+			dispatchGeneration = generation;
+		}
+
+		void addMethod(Method method) {
+			if (!method.isPublic()) {
+				// only public methods are commands, see CommandExecutor
+				return;
+			}
+			Class<?>[] params = method.getParameterTypes();
+			ArgumentConverter<?>[] converters = new ArgumentConverter<?>[params.length];
+			for (int i = 0; i < params.length; i++) {
+				converters[i] = AnnotationCommandCreator.this.converters.get(params[i]);
+				if (converters[i] == null) {
+					// no way to pass this parameter from the console
+					return;
+				}
+			}
+			// public methods of non-public executor classes, e.g. anonymous ones
+			method.setAccessible(true);
+			Array<CommandMethod> overloads = dispatch.get(params.length);
+			if (overloads == null) {
+				overloads = new Array<>(1);
+				dispatch.put(params.length, overloads);
+			}
+			overloads.add(new CommandMethod(method, converters));
+		}
 
-			int size = possible.size;
-			int numArgs = sArgs == null ? 0 : sArgs.length;
-			for (int i = 0; i < size; i++) {
-				Method m = methods[possible.get(i)];
-				Class<?>[] params = m.getParameterTypes();
-				if (numArgs == params.length) {
-					try {
-						Object[] args = null;
-
-						try {
-							if (sArgs != null) {
-								args = new Object[numArgs];
-
-								for (int j = 0; j < params.length; j++) {
-									Class<?> param = params[j];
-									final String value = sArgs[j];
-
-									if (param.equals(String.class)) {
-										args[j] = value;
-									} else if (param.equals(Boolean.class)
-											|| param.equals(boolean.class)) {
-										args[j] = Boolean.parseBoolean(value);
-									} else if (param.equals(Byte.class)
-											|| param.equals(byte.class)) {
-										args[j] = Byte.parseByte(value);
-									} else if (param.equals(Short.class)
-											|| param.equals(short.class)) {
-										args[j] = Short.parseShort(value);
-									} else if (param.equals(Integer.class)
-											|| param.equals(int.class)) {
-										args[j] = Integer.parseInt(value);
-									} else if (param.equals(Long.class)
-											|| param.equals(long.class)) {
-										args[j] = Long.parseLong(value);
-									} else if (param.equals(Float.class)
-											|| param.equals(float.class)) {
-										args[j] = Float.parseFloat(value);
-									} else if (param.equals(Double.class)
-											|| param.equals(double.class)) {
-										args[j] = Double.parseDouble(value);
-									}
-								}
-							}
-						} catch (Exception e) {
-							// Error occurred trying to parse parameter, continue
-							// to next function
-							continue;
-						}
-
-						m.setAccessible(true);
-						m.invoke(exec, args);
-						return;
-					} catch (ReflectionException e) {
-						String msg = e.getMessage();
-						if (msg == null || msg.length() <= 0 || msg.equals("")) {
-							msg = "Unknown Error";
-							e.printStackTrace();
-						}
-						console.log(msg, LogLevel.ERROR);
-						if (consoleTrace) {
-							console.log(e, LogLevel.ERROR);
-						}
-						return;
+		private boolean hasExecutableMethod(boolean executeHidden) {
+			for (Array<CommandMethod> overloads : dispatch.values()) {
+				for (CommandMethod overload : overloads) {
+					if (executeHidden || !overload.hidden) {
+						return true;
 					}
 				}
 			}
+			return false;
+		}
 
-			console.log("Bad parameters. Check your code.", LogLevel.ERROR);
+		/**
+		 * @return The converted arguments, or null if an argument can't be
+		 *         converted.
+		 */
+		private Object[] convert(CommandMethod overload, CommandLine line, int first) {
+			Object[] args = new Object[overload.converters.length];
+			for (int j = 0; j < args.length; j++) {
+				args[j] = overload.converters[j].convert(line.get(first + j));
+				if (args[j] == null) {
+					return null;
+				}
+			}
+			return args;
+		}
+
+		private void invoke(CommandInvoker invoker, Object[] args) {
+			try {
+				invoker.invoke(exec, args);
+			} catch (ReflectionException e) {
+				String msg = e.getMessage();
+				if (msg == null || msg.length() <= 0 || msg.equals("")) {
+					msg = "Unknown Error";
+					e.printStackTrace();
+				}
+				console.log(msg, LogLevel.ERROR);
+				if (consoleTrace) {
+					console.log(e, LogLevel.ERROR);
+				}
+			}
 		}
 
 		public void setMethod(Method m) {
@@ -147,16 +261,29 @@ public class AnnotationCommandCreator {
 
 	}
 
+	/**
+	 * Creates one command per method name, overloads of a method are executed
+	 * by the same command.
+	 */
 	public Array<Command> createCommands() {
 		Array<Command> commands = new Array<>();
+		ObjectMap<String, AnntationCommand> byName = new ObjectMap<>();
 		for (Method m : getAllMethods()) {
-			Command command = createCommand(m, m.getName());
-			commands.add(command);
+			String key = m.getName().toLowerCase();
+			AnntationCommand command = byName.get(key);
+			if (command == null) {
+				command = createCommand(m, m.getName());
+				command.dispatch = new IntMap<>();
+				command.dispatchGeneration = generation;
+				byName.put(key, command);
+				commands.add(command);
+			}
+			command.addMethod(m);
 		}
 		return commands;
 	}
 
-	private Command createCommand(Method m, String name) {
+	private AnntationCommand createCommand(Method m, String name) {
 		AnntationCommand command = new AnntationCommand();
 		command.setName(name);
 		command.setMethod(m);
@@ -185,6 +312,22 @@ public class AnnotationCommandCreator {
 		return command;
 	}
 
+	/**
+	 * @return Invokers generated by the lambda metafactory where the platform
+	 *         has it, otherwise {@link #REFLECTION_INVOKERS}.
+	 */
+	private static CommandInvoker.Factory createInvokers() {
+		try {
+			Class<?> type = ClassReflection.forName("com.strongjoshua.console.LambdaInvokers");
+			Constructor constructor = ClassReflection.getDeclaredConstructor(type);
+			constructor.setAccessible(true);
+			return (CommandInvoker.Factory) constructor.newInstance();
+		} catch (Throwable e) {
+			// not on the GWT module path, or a platform without java.lang.invoke
+			return REFLECTION_INVOKERS;
+		}
+	}
+
 	private ArrayList<Method> getAllMethods() {
 		ArrayList<Method> methods = new ArrayList<Method>();
 		Class<?> c = exec.getClass();
@@ -0,0 +1,21 @@
+package com.strongjoshua.console;
+
+/**
+ * Converts a command argument, as typed into the console, into a parameter of
+ * a {@link CommandExecutor} method. Converters are registered for a type with
+ * {@link AnnotationCommandCreator#setConverter(Class, ArgumentConverter)}.
+ * <p>
+ * Converters must not throw when a value can't be converted, but return null.
+ * A command with overloads taking the same number of arguments tries them in
+ * turn, and a failed conversion is how an overload is ruled out.
+ *
+ * @param <T> The type of the parameter.
+ */
+public interface ArgumentConverter<T> {
+	/**
+	 * @param value The argument. Only valid during this call, convert it into a
+	 *              string to keep it.
+	 * @return The converted value, or null if the value can't be converted.
+	 */
+	T convert(CharSequence value);
+}
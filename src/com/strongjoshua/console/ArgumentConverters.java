@@ -0,0 +1,309 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The {@link ArgumentConverter}s of an {@link AnnotationCommandCreator}, by
+ * parameter type. Converters are looked up once per parameter when the
+ * commands are created.
+ * <p>
+ * Converters for <code>String</code>, the primitive types and their wrappers,
+ * {@link Vector2} and {@link Color} are registered by default, and enums are
+ * converted from the name of a constant, ignoring case. Integers are parsed
+ * from the argument without creating a string.
+ */
+public class ArgumentConverters {
+	public static final ArgumentConverter<String> STRING = new ArgumentConverter<String>() {
+		@Override
+		public String convert(CharSequence value) {
+			return value.toString();
+		}
+	};
+
+	public static final ArgumentConverter<Boolean> BOOLEAN = new ArgumentConverter<Boolean>() {
+		@Override
+		public Boolean convert(CharSequence value) {
+			if (equalsIgnoreCase(value, "true")) {
+				return Boolean.TRUE;
+			}
+			return equalsIgnoreCase(value, "false") ? Boolean.FALSE : null;
+		}
+	};
+
+	public static final ArgumentConverter<Byte> BYTE = new ArgumentConverter<Byte>() {
+		@Override
+		public Byte convert(CharSequence value) {
+			return isInteger(value, Byte.MIN_VALUE, Byte.MAX_VALUE) ? (byte) parseInteger(value) : null;
+		}
+	};
+
+	public static final ArgumentConverter<Short> SHORT = new ArgumentConverter<Short>() {
+		@Override
+		public Short convert(CharSequence value) {
+			return isInteger(value, Short.MIN_VALUE, Short.MAX_VALUE) ? (short) parseInteger(value) : null;
+		}
+	};
+
+	public static final ArgumentConverter<Integer> INTEGER = new ArgumentConverter<Integer>() {
+		@Override
+		public Integer convert(CharSequence value) {
+			return isInteger(value, Integer.MIN_VALUE, Integer.MAX_VALUE) ? (int) parseInteger(value) : null;
+		}
+	};
+
+	public static final ArgumentConverter<Long> LONG = new ArgumentConverter<Long>() {
+		@Override
+		public Long convert(CharSequence value) {
+			return isInteger(value, Long.MIN_VALUE, Long.MAX_VALUE) ? parseInteger(value) : null;
+		}
+	};
+
+	public static final ArgumentConverter<Float> FLOAT = new ArgumentConverter<Float>() {
+		@Override
+		public Float convert(CharSequence value) {
+			return isDecimal(value, 0, value.length()) ? Float.parseFloat(value.toString()) : null;
+		}
+	};
+
+	public static final ArgumentConverter<Double> DOUBLE = new ArgumentConverter<Double>() {
+		@Override
+		public Double convert(CharSequence value) {
+			return isDecimal(value, 0, value.length()) ? Double.parseDouble(value.toString()) : null;
+		}
+	};
+
+	/** Converts <code>x,y</code>, e.g. <code>1.5,-2</code>. */
+	public static final ArgumentConverter<Vector2> VECTOR2 = new ArgumentConverter<Vector2>() {
+		@Override
+		public Vector2 convert(CharSequence value) {
+			int comma = indexOf(value, ',');
+			if (comma == -1 || !isDecimal(value, 0, comma) || !isDecimal(value, comma + 1, value.length())) {
+				return null;
+			}
+			return new Vector2(Float.parseFloat(value.subSequence(0, comma).toString()),
+					Float.parseFloat(value.subSequence(comma + 1, value.length()).toString()));
+		}
+	};
+
+	/**
+	 * Converts hex colors, <code>RRGGBB</code> or <code>RRGGBBAA</code> with an
+	 * optional <code>#</code>, and the names of {@link Colors}, ignoring case.
+	 */
+	public static final ArgumentConverter<Color> COLOR = new ArgumentConverter<Color>() {
+		@Override
+		public Color convert(CharSequence value) {
+			int start = value.length() > 0 && value.charAt(0) == '#' ? 1 : 0;
+			int digits = value.length() - start;
+			if ((digits == 6 || digits == 8) && isHex(value, start)) {
+				long rgba = 0;
+				for (int i = start; i < value.length(); i++) {
+					rgba = rgba << 4 | Character.digit(value.charAt(i), 16);
+				}
+				return new Color(digits == 6 ? (int) (rgba << 8 | 0xff) : (int) rgba);
+			}
+			Color color = start == 0 ? Colors.get(value.toString().toUpperCase()) : null;
+			// named colors are shared, commands get their own copy
+			return color == null ? null : new Color(color);
+		}
+	};
+
+	private final ObjectMap<Class<?>, ArgumentConverter<?>> converters = new ObjectMap<>();
+
+	/**
+	 * Creates a registry with the default converters.
+	 */
+	public ArgumentConverters() {
+		put(String.class, STRING);
+		put(Boolean.class, BOOLEAN);
+		put(boolean.class, BOOLEAN);
+		put(Byte.class, BYTE);
+		put(byte.class, BYTE);
+		put(Short.class, SHORT);
+		put(short.class, SHORT);
+		put(Integer.class, INTEGER);
+		put(int.class, INTEGER);
+		put(Long.class, LONG);
+		put(long.class, LONG);
+		put(Float.class, FLOAT);
+		put(float.class, FLOAT);
+		put(Double.class, DOUBLE);
+		put(double.class, DOUBLE);
+		put(Vector2.class, VECTOR2);
+		put(Color.class, COLOR);
+	}
+
+	/**
+	 * Registers a converter, replacing the converter registered for the type.
+	 * For a primitive type, register the converter for the primitive and for
+	 * the wrapper type.
+	 */
+	public <T> void put(Class<T> type, ArgumentConverter<? extends T> converter) {
+		converters.put(type, converter);
+	}
+
+	/**
+	 * @return The converter for the type, or null if the type can't be
+	 *         converted.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public <T> ArgumentConverter<T> get(Class<T> type) {
+		ArgumentConverter<?> converter = converters.get(type);
+		if (converter == null && type.isEnum()) {
+			converter = new EnumConverter(type);
+			converters.put(type, converter);
+		}
+		return (ArgumentConverter<T>) converter;
+	}
+
+	private static class EnumConverter<T extends Enum<T>> implements ArgumentConverter<T> {
+		private final T[] constants;
+
+		EnumConverter(Class<T> type) {
+			constants = type.getEnumConstants();
+		}
+
+		@Override
+		public T convert(CharSequence value) {
+			for (T constant : constants) {
+				if (equalsIgnoreCase(value, constant.name())) {
+					return constant;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * @return True if the value is a decimal integer between min and max,
+	 *         e.g. <code>-12</code> or <code>+7</code>.
+	 */
+	static boolean isInteger(CharSequence value, long min, long max) {
+		int length = value.length(), i = 0;
+		boolean negative = length > 0 && value.charAt(0) == '-';
+		if (length > 0 && (negative || value.charAt(0) == '+')) {
+			i++;
+		}
+		if (i == length) {
+			return false;
+		}
+		// accumulated negatively, the negative range is the larger one
+		long limit = negative ? min : -max;
+		long result = 0;
+		for (; i < length; i++) {
+			int digit = Character.digit(value.charAt(i), 10);
+			if (digit < 0 || result < (limit + digit) / 10) {
+				return false;
+			}
+			result = result * 10 - digit;
+		}
+		return true;
+	}
+
+	/**
+	 * Parses an integer checked with {@link #isInteger(CharSequence, long, long)}.
+	 */
+	static long parseInteger(CharSequence value) {
+		boolean negative = value.charAt(0) == '-';
+		int i = negative || value.charAt(0) == '+' ? 1 : 0;
+		long result = 0;
+		for (; i < value.length(); i++) {
+			result = result * 10 - Character.digit(value.charAt(i), 10);
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * @return True if the region holds a number {@link Double#parseDouble(String)}
+	 *         accepts without a type suffix, e.g. <code>-1.5e3</code>,
+	 *         <code>.5</code>, <code>NaN</code> or <code>-Infinity</code>.
+	 */
+	static boolean isDecimal(CharSequence value, int start, int end) {
+		int i = start;
+		if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			i++;
+		}
+		if (regionEquals(value, i, end, "NaN") || regionEquals(value, i, end, "Infinity")) {
+			return true;
+		}
+		int digits = 0;
+		while (i < end && isDigit(value.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (i < end && value.charAt(i) == '.') {
+			i++;
+			while (i < end && isDigit(value.charAt(i))) {
+				i++;
+				digits++;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+			i++;
+			if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+				i++;
+			}
+			int exponentStart = i;
+			while (i < end && isDigit(value.charAt(i))) {
+				i++;
+			}
+			if (i == exponentStart) {
+				return false;
+			}
+		}
+		return i == end;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isHex(CharSequence value, int start) {
+		for (int i = start; i < value.length(); i++) {
+			if (Character.digit(value.charAt(i), 16) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexOf(CharSequence value, char c) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean regionEquals(CharSequence value, int start, int end, String other) {
+		if (end - start != other.length()) {
+			return false;
+		}
+		for (int i = 0; i < other.length(); i++) {
+			if (value.charAt(start + i) != other.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean equalsIgnoreCase(CharSequence value, String other) {
+		if (value.length() != other.length()) {
+			return false;
+		}
+		for (int i = 0; i < other.length(); i++) {
+			char a = value.charAt(i), b = other.charAt(i);
+			if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+					&& Character.toLowerCase(a) != Character.toLowerCase(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
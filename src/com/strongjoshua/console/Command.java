@@ -11,6 +11,21 @@ public interface Command {
 
 	void execute(String params);
 
+	/**
+	 * Executes the command with an already parsed command line. By default the
+	 * arguments are passed on to {@link #execute(String)} as typed.
+	 *
+	 * @param line The command line, its first token being the command's name.
+	 */
+	default void execute(CommandLine line) {
+		execute(line.getRemainder(1));
+	}
+
+	/**
+	 * @return The sub-commands, or null if this is no category. Return the same
+	 *         {@link CommandArray} on each call, so the command manager notices
+	 *         changes to it without indexing the sub-commands again.
+	 */
 	default Array<Command> getSubCommands() {
 		return null;
 	}
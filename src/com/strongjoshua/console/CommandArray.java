@@ -0,0 +1,163 @@
+package com.strongjoshua.console;
+
+import java.util.Comparator;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An array of commands that counts how often it was modified, so the
+ * {@link CommandIndex} of a {@link DefaultCommandManager} notices commands
+ * added, removed or replaced in the array by comparing a single number.
+ * <p>
+ * Only modifications through the methods of the array are counted, not
+ * writes to {@link #items} or {@link #size}. The commands of the manager and
+ * of a {@link CommandCategory} are kept in a command array, other
+ * {@link Command#getSubCommands()} implementations should use one as well.
+ */
+public class CommandArray extends Array<Command> {
+	/** Incremented by every modification. */
+	int modCount;
+
+	public CommandArray() {
+		super(true, 16, Command.class);
+	}
+
+	@Override
+	public void add(Command value) {
+		super.add(value);
+		modCount++;
+	}
+
+	@Override
+	public void add(Command value1, Command value2) {
+		super.add(value1, value2);
+		modCount++;
+	}
+
+	@Override
+	public void add(Command value1, Command value2, Command value3) {
+		super.add(value1, value2, value3);
+		modCount++;
+	}
+
+	@Override
+	public void add(Command value1, Command value2, Command value3, Command value4) {
+		super.add(value1, value2, value3, value4);
+		modCount++;
+	}
+
+	@Override
+	public void addAll(Array<? extends Command> array, int start, int count) {
+		super.addAll(array, start, count);
+		modCount++;
+	}
+
+	@Override
+	public void addAll(Command[] array, int start, int count) {
+		super.addAll(array, start, count);
+		modCount++;
+	}
+
+	@Override
+	public void set(int index, Command value) {
+		super.set(index, value);
+		modCount++;
+	}
+
+	@Override
+	public void insert(int index, Command value) {
+		super.insert(index, value);
+		modCount++;
+	}
+
+	@Override
+	public void swap(int first, int second) {
+		super.swap(first, second);
+		modCount++;
+	}
+
+	@Override
+	public boolean removeValue(Command value, boolean identity) {
+		modCount++;
+		return super.removeValue(value, identity);
+	}
+
+	@Override
+	public Command removeIndex(int index) {
+		modCount++;
+		return super.removeIndex(index);
+	}
+
+	@Override
+	public void removeRange(int start, int end) {
+		super.removeRange(start, end);
+		modCount++;
+	}
+
+	@Override
+	public boolean removeAll(Array<? extends Command> array, boolean identity) {
+		modCount++;
+		return super.removeAll(array, identity);
+	}
+
+	@Override
+	public Command pop() {
+		modCount++;
+		return super.pop();
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		modCount++;
+	}
+
+	@Override
+	public Command[] setSize(int newSize) {
+		modCount++;
+		return super.setSize(newSize);
+	}
+
+	@Override
+	public void truncate(int newSize) {
+		super.truncate(newSize);
+		modCount++;
+	}
+
+	@Override
+	public void sort() {
+		super.sort();
+		modCount++;
+	}
+
+	@Override
+	public void sort(Comparator<? super Command> comparator) {
+		super.sort(comparator);
+		modCount++;
+	}
+
+	@Override
+	public Command selectRanked(Comparator<Command> comparator, int kthLowest) {
+		// selecting reorders the commands
+		modCount++;
+		return super.selectRanked(comparator, kthLowest);
+	}
+
+	@Override
+	public int selectRankedIndex(Comparator<Command> comparator, int kthLowest) {
+		modCount++;
+		return super.selectRankedIndex(comparator, kthLowest);
+	}
+
+	@Override
+	public void reverse() {
+		super.reverse();
+		modCount++;
+	}
+
+	@Override
+	public void shuffle() {
+		super.shuffle();
+		modCount++;
+	}
+}
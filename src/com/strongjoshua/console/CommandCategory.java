@@ -3,7 +3,7 @@ package com.strongjoshua.console;
 import com.badlogic.gdx.utils.Array;
 
 public abstract class CommandCategory implements Command {
-	private Array<Command> subCommands = new Array<>();
+	private final CommandArray subCommands = new CommandArray();
 
 	public Array<CommandParameter> getParameters() {
 		return null;
@@ -17,14 +17,19 @@
 package com.strongjoshua.console;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
 import com.strongjoshua.console.annotation.ConsoleDoc;
+import com.strongjoshua.console.log.LogEntry;
+import com.strongjoshua.console.log.LogLevel;
 
 /** Extend this class and fill it with methods (also <code>public</code>) that you wish to have work with the {@link Console}. Then
  * call {@link Console#setCommandExecutor(CommandExecutor)}.<br>
  * <br>
  * <b>Notes</b><br>
  * <ul>
- * <li>Arguments <i><b>must</b></i> be primitive types (the only exception being {@link String}).</li>
+ * <li>Arguments <i><b>must</b></i> be primitive types, {@link String}, enums, {@link com.badlogic.gdx.math.Vector2} or
+ * {@link com.badlogic.gdx.graphics.Color}, unless an {@link ArgumentConverter} was registered for their type.</li>
  * <li>No two methods, of the same name, can have the same number of parameters. Make multiple methods with more specific names if
  * they must have the same number of parameters.</li>
  * <li>Methods are case-<b>insensitive</b> when invoked from the console.</li>
@@ -33,6 +38,8 @@ import com.strongjoshua.console.annotation.ConsoleDoc;
  * @author StrongJoshua */
 public abstract class CommandExecutor {
 	protected Console console;
+	/** Sequence numbers of the entries printed by {@link #find(String)}, see {@link #isFindOutput(long)}. */
+	private final LongArray findOutput = new LongArray();
 
 	protected void setConsole (Console c) {
 		console = c;
@@ -45,6 +52,45 @@ public abstract class CommandExecutor {
 		console.printLogToFile(path);
 	}
 
+	/** Prints all log entries containing the given text, ignoring case. Each match is printed as its own entry. The printed entries
+	 * are not found again by later searches, so searching twice does not print the first results again.
+	 * <p>
+	 * Without a search index, every entry of the log is scanned, see
+	 * {@link com.strongjoshua.console.log.Log#setSearchIndexed(boolean)}. Executors may override this to provide their own
+	 * <code>find</code> command.
+	 *
+	 * @param text The text to search for. */
+	@ConsoleDoc(description = "Prints all log entries containing the given text. Scans the whole log unless it is search indexed.")
+	public void find (String text) {
+		Array<LogEntry> entries = console.findLogEntries(text);
+		// copy the texts first, logging may evict and recycle the found entries
+		Array<String> found = new Array<String>(entries.size);
+		for (LogEntry entry : entries) {
+			if (entry.getLevel() != LogLevel.COMMAND && !isFindOutput(entry.getSequence())) found.add(entry.getText());
+		}
+		long start = console.getNextSequence();
+		console.log(found.size == 1 ? "1 entry found." : found.size + " entries found.");
+		for (int i = 0; i < found.size; i++) {
+			console.log(found.get(i));
+		}
+		// forget the output which is no longer part of the log
+		long first = console.getFirstSequence();
+		while (findOutput.size > 0 && findOutput.get(1) <= first) {
+			findOutput.removeIndex(0);
+			findOutput.removeIndex(0);
+		}
+		findOutput.add(start, console.getNextSequence());
+	}
+
+	/** @return Whether the entry with the given sequence number was printed by {@link #find(String)}. */
+	private boolean isFindOutput (long sequence) {
+		// pairs of the first sequence number of the output of a search and the one after its last
+		for (int i = 0; i < findOutput.size; i += 2) {
+			if (sequence >= findOutput.get(i) && sequence < findOutput.get(i + 1)) return true;
+		}
+		return false;
+	}
+
 	/** Closes the application completely. */
 	@ConsoleDoc(description = "Exits the application.")
 	public final void exitApp () {
@@ -0,0 +1,205 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Hash table of the commands of one level of a command tree, keyed by their
+ * case-insensitive names. The commands of a {@link CommandCategory} are indexed
+ * by a child index, which is built on its first lookup.
+ * <p>
+ * Names are looked up as a region of a {@link CharSequence} and compared with
+ * case folded characters, so looking up a command allocates nothing.
+ * <p>
+ * The commands may be changed directly in their array, so each lookup checks
+ * whether the array changed since it was indexed. For a {@link CommandArray}
+ * this compares its modification count, which catches commands that were
+ * replaced in place. Other arrays are only indexed again when their size
+ * changed.
+ */
+class CommandIndex {
+	private static class Entry {
+		final Command command;
+		final String name;
+		final int hash;
+		CommandIndex children;
+
+		Entry(Command command, int hash) {
+			this.command = command;
+			this.name = command.getName();
+			this.hash = hash;
+		}
+	}
+
+	private Entry[] table = new Entry[16];
+	private int size;
+	/** The commands this index was built from, and their size and modification count when they were indexed. */
+	private Array<Command> source;
+	private int indexedSize;
+	private int indexedModCount;
+
+	/**
+	 * Indexes the given commands, unless these commands were indexed already
+	 * and did not change since.
+	 */
+	public void sync(Array<Command> commands) {
+		if (commands == source && (commands == null || isIndexed(commands))) {
+			return;
+		}
+		clear();
+		if (commands != null) {
+			for (int i = 0; i < commands.size; i++) {
+				put(commands.get(i));
+			}
+			markIndexed(commands);
+		}
+	}
+
+	private boolean isIndexed(Array<Command> commands) {
+		if (commands.size != indexedSize) {
+			return false;
+		}
+		return !(commands instanceof CommandArray) || ((CommandArray) commands).modCount == indexedModCount;
+	}
+
+	private void markIndexed(Array<Command> commands) {
+		source = commands;
+		indexedSize = commands.size;
+		indexedModCount = commands instanceof CommandArray ? ((CommandArray) commands).modCount : 0;
+	}
+
+	/**
+	 * Adds a command that was just added to the end of the indexed commands,
+	 * replacing the command with the same name.
+	 */
+	public void put(Command command) {
+		if (source != null) {
+			markIndexed(source);
+		}
+		if (command.getName() == null) {
+			return;
+		}
+		if ((size + 1) * 2 > table.length) {
+			resize(table.length * 2);
+		}
+		Entry entry = new Entry(command, hash(command.getName(), 0, command.getName().length()));
+		int mask = table.length - 1;
+		for (int i = entry.hash & mask;; i = (i + 1) & mask) {
+			Entry other = table[i];
+			if (other == null) {
+				table[i] = entry;
+				size++;
+				break;
+			}
+			if (other.hash == entry.hash && equals(other.name, entry.name, 0, entry.name.length())) {
+				table[i] = entry;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Looks up a command by its dotted path, e.g. <code>category.command</code>.
+	 *
+	 * @return The command, or null if a part of the path does not exist.
+	 */
+	public Command find(CharSequence path, int start, int end) {
+		CommandIndex index = this;
+		while (true) {
+			int dot = start;
+			while (dot < end && path.charAt(dot) != '.') {
+				dot++;
+			}
+			Entry entry = index.getEntry(path, start, dot);
+			if (entry == null) {
+				return null;
+			}
+			if (dot == end) {
+				return entry.command;
+			}
+			Array<Command> subCommands = entry.command.getSubCommands();
+			if (subCommands == null) {
+				return null;
+			}
+			if (entry.children == null) {
+				entry.children = new CommandIndex();
+			}
+			entry.children.sync(subCommands);
+			index = entry.children;
+			start = dot + 1;
+		}
+	}
+
+	public void clear() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = null;
+		}
+		size = 0;
+		source = null;
+		indexedSize = 0;
+		indexedModCount = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private Entry getEntry(CharSequence name, int start, int end) {
+		int hash = hash(name, start, end);
+		int mask = table.length - 1;
+		for (int i = hash & mask;; i = (i + 1) & mask) {
+			Entry entry = table[i];
+			if (entry == null) {
+				return null;
+			}
+			if (entry.hash == hash && equals(entry.name, name, start, end)) {
+				return entry;
+			}
+		}
+	}
+
+	private void resize(int capacity) {
+		Entry[] oldTable = table;
+		table = new Entry[capacity];
+		int mask = capacity - 1;
+		for (Entry entry : oldTable) {
+			if (entry == null) {
+				continue;
+			}
+			int i = entry.hash & mask;
+			while (table[i] != null) {
+				i = (i + 1) & mask;
+			}
+			table[i] = entry;
+		}
+	}
+
+	/**
+	 * Folds the case the same way {@link String#compareToIgnoreCase(String)}
+	 * does.
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static int hash(CharSequence name, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + fold(name.charAt(i));
+		}
+		// spread the high bits, the table only uses the low ones
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean equals(String name, CharSequence other, int start, int end) {
+		if (name.length() != end - start) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			char a = name.charAt(i), b = other.charAt(start + i);
+			if (a != b && fold(a) != fold(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,30 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Invokes one method of a {@link CommandExecutor}. Invokers are created once
+ * per method when the commands of an executor are resolved, see
+ * {@link AnnotationCommandCreator}.
+ */
+interface CommandInvoker {
+	/**
+	 * @param target The executor, ignored for static methods.
+	 * @param args   The arguments, one per parameter of the method.
+	 * @throws ReflectionException If the method threw an exception.
+	 */
+	void invoke(Object target, Object[] args) throws ReflectionException;
+
+	/**
+	 * Creates the invokers for methods.
+	 */
+	interface Factory {
+		/**
+		 * @param method An accessible method.
+		 * @throws ReflectionException If no invoker can be created for the
+		 *                             method.
+		 */
+		CommandInvoker create(Method method) throws ReflectionException;
+	}
+}
@@ -0,0 +1,170 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A command line split into tokens: the command name followed by its
+ * arguments. Tokens are separated by whitespace. Text in double or single
+ * quotes is part of one token. A backslash escapes a following quote,
+ * backslash or whitespace, except within single quotes, and is kept literally
+ * before any other character. E.g. <code>say "hello world" it\'s</code> has
+ * the tokens <code>say</code>, <code>hello world</code> and <code>it's</code>,
+ * and <code>printLog C:\logs\out.txt</code> keeps its backslashes.
+ * <p>
+ * Tokens are kept as offsets into the parsed line and returned as views, only
+ * tokens containing quotes or escapes are copied into a buffer. A command line
+ * can be parsed again and again, once its arrays grew large enough it does not
+ * allocate anything. Tokens are only valid until the next call to
+ * {@link #parse(CharSequence)}.
+ */
+public class CommandLine {
+	private CharSequence line = "";
+	/** Unquoted and unescaped copies of the tokens containing quotes or escapes. */
+	private final StringBuilder buffer = new StringBuilder();
+	private final Array<Token> tokens = new Array<>();
+	private int size;
+
+	/**
+	 * Splits the given line into tokens.
+	 *
+	 * @return False if a quote is not closed, the tokens up to the quote are
+	 *         kept.
+	 */
+	public boolean parse(CharSequence line) {
+		this.line = line;
+		buffer.setLength(0);
+		size = 0;
+		int i = 0, length = line.length();
+		while (true) {
+			while (i < length && isSpace(line.charAt(i))) {
+				i++;
+			}
+			if (i == length) {
+				return true;
+			}
+			int start = i, bufferStart = buffer.length();
+			boolean copied = false;
+			char quote = 0;
+			for (; i < length; i++) {
+				char c = line.charAt(i);
+				if (quote == 0 && isSpace(c)) {
+					break;
+				}
+				if (c == '\\' && quote != '\'' && i + 1 < length && isEscapable(line.charAt(i + 1))) {
+					if (!copied) {
+						buffer.append(line, start, i);
+						copied = true;
+					}
+					buffer.append(line.charAt(++i));
+				} else if ((quote == 0 && (c == '"' || c == '\'')) || (quote != 0 && c == quote)) {
+					if (!copied) {
+						buffer.append(line, start, i);
+						copied = true;
+					}
+					quote = quote == 0 ? c : 0;
+				} else if (copied) {
+					buffer.append(c);
+				}
+			}
+			if (quote != 0) {
+				return false;
+			}
+			Token token = obtainToken();
+			token.sourceStart = start;
+			if (copied) {
+				token.set(buffer, bufferStart, buffer.length());
+			} else {
+				token.set(line, start, i);
+			}
+		}
+	}
+
+	/**
+	 * @return Number of tokens, including the command name.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The token with the given index, 0 being the command name. The
+	 *         returned view is reused by the next call to
+	 *         {@link #parse(CharSequence)}.
+	 */
+	public CharSequence get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+		}
+		return tokens.get(index);
+	}
+
+	/**
+	 * @return The text of the line from the token with the given index to the
+	 *         end of the line, as typed, or an empty string if there is no such
+	 *         token.
+	 */
+	public String getRemainder(int index) {
+		if (index >= size) {
+			return "";
+		}
+		return line.subSequence(tokens.get(index).sourceStart, line.length()).toString();
+	}
+
+	/**
+	 * @return The parsed line.
+	 */
+	public CharSequence getLine() {
+		return line;
+	}
+
+	private Token obtainToken() {
+		if (size == tokens.size) {
+			tokens.add(new Token());
+		}
+		return tokens.get(size++);
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t';
+	}
+
+	private static boolean isEscapable(char c) {
+		return c == '"' || c == '\'' || c == '\\' || isSpace(c);
+	}
+
+	/**
+	 * A view of a region of the line or of the buffer.
+	 */
+	private static class Token implements CharSequence {
+		private CharSequence text;
+		private int start, end;
+		/** Start of the token in the line, including quotes. */
+		int sourceStart;
+
+		void set(CharSequence text, int start, int end) {
+			this.text = text;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return text.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return text.subSequence(this.start + start, this.start + end);
+		}
+
+		@Override
+		public String toString() {
+			return text.subSequence(start, end).toString();
+		}
+	}
+}
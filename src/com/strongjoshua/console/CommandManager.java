@@ -6,6 +6,17 @@ public interface CommandManager {
 
 	Command getCommand(String name);
 
+	/**
+	 * Looks up a command by the name in a region of a character sequence, e.g.
+	 * of the command line.
+	 *
+	 * @param start Index of the first character of the name.
+	 * @param end   Index after the last character of the name.
+	 */
+	default Command getCommand(CharSequence name, int start, int end) {
+		return getCommand(name.subSequence(start, end).toString());
+	}
+
 	Array<Command> getCommands();
 
 	void add(Command command);
@@ -1,13 +1,20 @@
 
 package com.strongjoshua.console;
 
+import java.util.function.Supplier;
+
 import com.badlogic.gdx.Files;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
 import com.strongjoshua.console.annotation.HiddenCommand;
+import com.strongjoshua.console.log.Log;
 import com.strongjoshua.console.log.LogConverter;
+import com.strongjoshua.console.log.LogEntry;
 import com.strongjoshua.console.log.LogLevel;
+import com.strongjoshua.console.log.LogSink;
+import com.strongjoshua.console.log.LogSnapshot;
 
 /**
  * A simple console that allows live logging, and live execution of methods,
@@ -116,6 +123,59 @@ public interface Console {
 	 */
 	public void log(Exception exception);
 
+	/**
+	 * Logs a new entry built from a pattern. The message is only formatted, and
+	 * the {@link LogConverter}s only run, if {@link #isLoggable(LogLevel)} is
+	 * true, so this is cheap to call when the entry would be discarded.
+	 *
+	 * @param level   The {@link LogLevel} of the log entry.
+	 * @param pattern The message, with <code>{}</code> as placeholder for each
+	 *                argument.
+	 * @param args    The arguments.
+	 * @see ConsoleUtils#formatMessage(String, Object...)
+	 */
+	public void log(LogLevel level, String pattern, Object... args);
+
+	/**
+	 * Same as {@link #log(LogLevel, String, Object...)} without allocating the
+	 * argument array when the entry is discarded.
+	 */
+	public void log(LogLevel level, String pattern, Object arg);
+
+	/**
+	 * Same as {@link #log(LogLevel, String, Object...)} without allocating the
+	 * argument array when the entry is discarded.
+	 */
+	public void log(LogLevel level, String pattern, Object arg1, Object arg2);
+
+	/**
+	 * Logs a new entry whose message is only created if
+	 * {@link #isLoggable(LogLevel)} is true.
+	 *
+	 * @param level   The {@link LogLevel} of the log entry.
+	 * @param message Creates the message.
+	 */
+	public void log(LogLevel level, Supplier<String> message);
+
+	/**
+	 * @param level The {@link LogLevel} to check.
+	 * @return False if the console is disabled or the level is below the
+	 *         minimum log level. All log methods drop such entries.
+	 * @see #setMinLogLevel(LogLevel)
+	 */
+	public boolean isLoggable(LogLevel level);
+
+	/**
+	 * Entries with a lower {@link LogLevel#getPriority()} than the given level are
+	 * discarded. Defaults to {@link LogLevel#DEFAULT}, which keeps all entries.
+	 *
+	 * @param level The minimum {@link LogLevel}.
+	 */
+	public void setMinLogLevel(LogLevel level);
+
+	/** @return The minimum {@link LogLevel}. */
+	public LogLevel getMinLogLevel();
+
 	/**
 	 * Logs a new entry to the console using {@link LogLevel}.
 	 *
@@ -151,6 +211,73 @@ public interface Console {
 	 */
 	public void printLogToFile(FileHandle fh);
 
+	/**
+	 * Prints log entries to the given file.
+	 *
+	 * @param file   The relative path to the file to print to. This method uses
+	 *               {@link Files#local(String)}.
+	 * @param append If true, only the entries logged since the last export are
+	 *               appended to the file. Otherwise the file is overwritten with
+	 *               all log entries.
+	 * @see Console#printLogToFile(FileHandle, boolean)
+	 */
+	public void printLogToFile(String file, boolean append);
+
+	/**
+	 * Prints log entries to the given file. Entries are streamed to the file in
+	 * chunks, so large logs can be exported without building the whole file in
+	 * memory.
+	 *
+	 * @param fh     The {@link FileHandle} that links to the file to be written to.
+	 * @param append If true, only the entries logged since the last export are
+	 *               appended to the file. Otherwise the file is overwritten with
+	 *               all log entries.
+	 */
+	public void printLogToFile(FileHandle fh, boolean append);
+
+	/**
+	 * Finds the log entries whose message contains the given text, ignoring
+	 * case.
+	 *
+	 * @param query The text to search for.
+	 * @return The matching entries, oldest first.
+	 * @see Log#setSearchIndexed(boolean)
+	 */
+	public Array<LogEntry> findLogEntries(String query);
+
+	/**
+	 * Like {@link #findLogEntries(String)}, this must be called on the thread
+	 * that logs to the console, or draws it for a GUI console.
+	 *
+	 * @return The sequence number of the oldest entry of the log, see
+	 *         {@link LogEntry#getSequence()}.
+	 */
+	public long getFirstSequence();
+
+	/**
+	 * Like {@link #findLogEntries(String)}, this must be called on the thread
+	 * that logs to the console, or draws it for a GUI console.
+	 *
+	 * @return The sequence number the next entry of the log will get.
+	 */
+	public long getNextSequence();
+
+	/**
+	 * Returns an immutable snapshot of the log, which can be read from any
+	 * thread without locking.
+	 * <p>
+	 * A GUI console may be asked from any thread. Other consoles, e.g. a
+	 * {@link HeadlessConsole}, must be asked on the thread that logs to them,
+	 * the returned snapshot may then be handed to other threads.
+	 *
+	 * @return The entries of the log as of the last change. For a GUI console
+	 *         called from another thread than the one drawing it, this is the
+	 *         snapshot published by the last {@link #draw()}. If no snapshot was
+	 *         published recently, the call waits briefly for the next draw to
+	 *         publish one.
+	 */
+	public LogSnapshot getLogSnapshot();
+
 	/** Prints all commands */
 	public void printCommands();
 
@@ -218,7 +345,8 @@ public interface Console {
 
 	/**
 	 * Resets the {@link InputProcessor} to the one that was the default before this
-	 * console object was created.
+	 * console object was created. Also flushes and disposes all added
+	 * {@link LogSink}s.
 	 */
 	public void dispose();
 
@@ -281,4 +409,20 @@ public interface Console {
 	 *                  messages
 	 */
 	public void addLogConverter(LogConverter converter);
+
+	/**
+	 * Adds a sink that receives every logged message, e.g. a
+	 * {@link com.strongjoshua.console.log.RollingFileSink} to persist the log.
+	 * Sinks are disposed together with the console.
+	 *
+	 * @param sink The {@link LogSink} to add.
+	 */
+	public void addLogSink(LogSink sink);
+
+	/**
+	 * Removes a sink without disposing it.
+	 *
+	 * @param sink The {@link LogSink} to remove.
+	 */
+	public void removeLogSink(LogSink sink);
 }
@@ -17,6 +17,25 @@ public final class ConsoleUtils {
 		return console.isDisplayHiddenCommandsEnabled() || !method.isAnnotationPresent(HiddenCommand.class);
 	}
 
+	/** Replaces each <code>{}</code> in the pattern with the next argument. Surplus placeholders are kept, surplus arguments are
+	 * ignored.
+	 *
+	 * @param pattern The message pattern, e.g. <code>"Loaded {} in {} ms"</code>.
+	 * @param args The arguments, converted with {@link String#valueOf(Object)}.
+	 * @return The formatted message. */
+	public static String formatMessage (String pattern, Object... args) {
+		if (args == null || args.length == 0) return pattern;
+		StringBuilder result = new StringBuilder(pattern.length() + 16 * args.length);
+		int start = 0, arg = 0;
+		while (arg < args.length) {
+			int index = pattern.indexOf("{}", start);
+			if (index == -1) break;
+			result.append(pattern, start, index).append(String.valueOf(args[arg++]));
+			start = index + 2;
+		}
+		return result.append(pattern, start, pattern.length()).toString();
+	}
+
 	public static String exceptionToString (final Throwable throwable) {
 		StringBuilder result = new StringBuilder();
 		Throwable cause = throwable;
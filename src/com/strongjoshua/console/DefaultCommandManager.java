@@ -2,28 +2,26 @@ package com.strongjoshua.console;
 
 import com.badlogic.gdx.utils.Array;
 
+/**
+ * Keeps commands in a {@link CommandIndex}, so looking up a command by its
+ * dotted path takes one hash lookup per part of the path. The commands are
+ * kept in a {@link CommandArray}, so commands changed in the array directly
+ * are indexed again on the next lookup.
+ */
 public class DefaultCommandManager implements CommandManager {
-	private Array<Command> commands = new Array<>();
+	private final CommandArray commands = new CommandArray();
+	private final CommandIndex index = new CommandIndex();
 
 	@Override
 	public Command getCommand(String name) {
-		String[] parts = name.split("\\.");
-
-		Command searchedCommand = null;
-		Array<Command> subCommands = commands;
-		for (String part : parts) {
-			for (Command command : subCommands) {
-				if (part.compareToIgnoreCase(command.getName()) == 0) {
-					searchedCommand = command;
-				}
-			}
-
-			if (searchedCommand == null)
-				return null;
+		return getCommand(name, 0, name.length());
+	}
 
-			subCommands = searchedCommand.getSubCommands();
-		}
-		return searchedCommand;
+	@Override
+	public Command getCommand(CharSequence name, int start, int end) {
+		// commands may have been added to or replaced in the array directly
+		index.sync(commands);
+		return index.find(name, start, end);
 	}
 
 	@Override
@@ -33,7 +31,9 @@ public class DefaultCommandManager implements CommandManager {
 
 	@Override
 	public void add(Command command) {
+		index.sync(commands);
 		this.commands.add(command);
+		index.put(command);
 	}
 
 }
@@ -4,7 +4,8 @@
 
 package com.strongjoshua.console;
 
-/** Headless Console used for servers.
+/** Headless Console used for servers. It is not thread safe, log to it and take {@link #getLogSnapshot() snapshots} of it from
+ * one thread.
  *
  * @author Eric */
 public class HeadlessConsole extends AbstractConsole {
@@ -0,0 +1,242 @@
+package com.strongjoshua.console;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Creates {@link CommandInvoker}s through the {@link LambdaMetafactory}. Each
+ * method gets its own generated class calling the method directly, with the
+ * arguments unboxed by casts, so the JIT can inline the call like any other.
+ * Neither {@link Method#invoke(Object, Object...)} nor a method handle held in
+ * a field offers that, both stay a generic call on each invocation.
+ * <p>
+ * Only public instance methods of public classes that are visible to the
+ * class loader of the console, with up to {@link #MAX_PARAMETERS}
+ * parameters, get a generated invoker. For other methods {@link #create}
+ * throws and {@link AnnotationCommandCreator} falls back to reflection, as it
+ * does on GWT, where this class is excluded from the module, and on Android,
+ * which has no runtime lambda support.
+ */
+class LambdaInvokers implements CommandInvoker.Factory {
+	static final int MAX_PARAMETERS = 5;
+
+	/** The functional interfaces the invokers implement, by number of parameters. */
+	private static final Class<?>[] INTERFACES = {Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class,
+			Invoker4.class, Invoker5.class};
+
+	private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	interface Invoker0 {
+		void invoke(Object target);
+	}
+
+	interface Invoker1 {
+		void invoke(Object target, Object a);
+	}
+
+	interface Invoker2 {
+		void invoke(Object target, Object a, Object b);
+	}
+
+	interface Invoker3 {
+		void invoke(Object target, Object a, Object b, Object c);
+	}
+
+	interface Invoker4 {
+		void invoke(Object target, Object a, Object b, Object c, Object d);
+	}
+
+	interface Invoker5 {
+		void invoke(Object target, Object a, Object b, Object c, Object d, Object e);
+	}
+
+	@Override
+	public CommandInvoker create(Method method) throws ReflectionException {
+		Class<?> type = method.getDeclaringClass();
+		Class<?>[] params = method.getParameterTypes();
+		if (method.isStatic() || !method.isPublic() || !Modifier.isPublic(type.getModifiers())
+				|| params.length > MAX_PARAMETERS) {
+			throw new ReflectionException("Can't generate an invoker for method: " + method.getName());
+		}
+		Class<?>[] instantiated = new Class<?>[params.length];
+		for (int i = 0; i < params.length; i++) {
+			instantiated[i] = params[i].isPrimitive() ? MethodType.methodType(params[i]).wrap().returnType() : params[i];
+		}
+		if (!isVisible(type) || !isVisible(instantiated)) {
+			throw new ReflectionException("Can't generate an invoker for method: " + method.getName());
+		}
+
+		Object invoker;
+		try {
+			MethodHandle handle = lookup.unreflect(type.getMethod(method.getName(), params));
+			Class<?> invokerType = INTERFACES[params.length];
+			MethodType samType = MethodType.genericMethodType(params.length + 1).changeReturnType(void.class);
+			invoker = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(invokerType), samType, handle,
+					MethodType.methodType(void.class, instantiated).insertParameterTypes(0, type)).getTarget().invoke();
+		} catch (Throwable e) {
+			throw new ReflectionException("Can't generate an invoker for method: " + method.getName(), e);
+		}
+
+		String name = method.getName();
+		switch (params.length) {
+		case 0:
+			return new LambdaInvoker0(name, (Invoker0) invoker);
+		case 1:
+			return new LambdaInvoker1(name, (Invoker1) invoker);
+		case 2:
+			return new LambdaInvoker2(name, (Invoker2) invoker);
+		case 3:
+			return new LambdaInvoker3(name, (Invoker3) invoker);
+		case 4:
+			return new LambdaInvoker4(name, (Invoker4) invoker);
+		default:
+			return new LambdaInvoker5(name, (Invoker5) invoker);
+		}
+	}
+
+	/**
+	 * @return Whether the types resolve to the same classes from the class
+	 *         loader of the console, which defines the generated invokers.
+	 */
+	private static boolean isVisible(Class<?>... types) {
+		ClassLoader loader = LambdaInvokers.class.getClassLoader();
+		for (Class<?> type : types) {
+			try {
+				if (Class.forName(type.getName(), false, loader) != type) {
+					return false;
+				}
+			} catch (ClassNotFoundException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Wraps anything the method throws like
+	 * {@link Method#invoke(Object, Object...)} does.
+	 */
+	static ReflectionException wrap(String name, Throwable e) {
+		return new ReflectionException("Exception occurred in method: " + name, e);
+	}
+
+	private static final class LambdaInvoker0 implements CommandInvoker {
+		private final String name;
+		private final Invoker0 invoker;
+
+		LambdaInvoker0(String name, Invoker0 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+
+	private static final class LambdaInvoker1 implements CommandInvoker {
+		private final String name;
+		private final Invoker1 invoker;
+
+		LambdaInvoker1(String name, Invoker1 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target, args[0]);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+
+	private static final class LambdaInvoker2 implements CommandInvoker {
+		private final String name;
+		private final Invoker2 invoker;
+
+		LambdaInvoker2(String name, Invoker2 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target, args[0], args[1]);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+
+	private static final class LambdaInvoker3 implements CommandInvoker {
+		private final String name;
+		private final Invoker3 invoker;
+
+		LambdaInvoker3(String name, Invoker3 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target, args[0], args[1], args[2]);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+
+	private static final class LambdaInvoker4 implements CommandInvoker {
+		private final String name;
+		private final Invoker4 invoker;
+
+		LambdaInvoker4(String name, Invoker4 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target, args[0], args[1], args[2], args[3]);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+
+	private static final class LambdaInvoker5 implements CommandInvoker {
+		private final String name;
+		private final Invoker5 invoker;
+
+		LambdaInvoker5(String name, Invoker5 invoker) {
+			this.name = name;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public void invoke(Object target, Object[] args) throws ReflectionException {
+			try {
+				invoker.invoke(target, args[0], args[1], args[2], args[3], args[4]);
+			} catch (Throwable e) {
+				throw wrap(name, e);
+			}
+		}
+	}
+}
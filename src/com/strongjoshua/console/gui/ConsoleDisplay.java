@@ -1,5 +1,8 @@
 package com.strongjoshua.console.gui;
 
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
@@ -9,7 +12,6 @@ import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
@@ -23,22 +25,26 @@ import com.strongjoshua.console.Console;
 import com.strongjoshua.console.log.Log;
 import com.strongjoshua.console.log.LogEntry;
 import com.strongjoshua.console.log.LogLevel;
+import com.strongjoshua.console.log.LogOverflowPolicy;
 
 public class ConsoleDisplay extends Table {
 	private Console console;
 	private Log log;
 	private Stage stage;
-	private Table logEntries;
+	private LogView logView;
 	private TextField input;
 	private Skin skin;
-	private Array<Label> labels;
 	private String fontName;
 	private ScrollPane scroll;
 	private boolean selected = true;
 	private Drawable mouseHoverDrawable;
 	private Drawable selectedDrawable;
-	private Array<LogEntry> selections = new Array<LogEntry>();
-	private StringBuilder sb = new StringBuilder();
+	private LogSelection selections = new LogSelection();
+	// shared by all rows of the same level, indexed by the level's ordinal
+	private final LabelStyle[] labelStyles = new LabelStyle[LogLevel.values().length];
+	private long hoveredSequence = -1;
+	private final Vector3 stageCoords = new Vector3();
+	private final Vector2 localCoords = new Vector2();
 
 	public static class ConsoleSettings {
 		private Skin skin;
@@ -51,6 +57,13 @@ public class ConsoleDisplay extends Table {
 		// Sets the key used to open/close the console
 		private int keyID;
 
+		// Messages logged from other threads are queued until the next draw
+		private int logQueueCapacity = 4096;
+		private LogOverflowPolicy logOverflowPolicy = LogOverflowPolicy.DROP_OLDEST;
+
+		// Time per frame for showing new entries of the log, unlimited by default
+		private float frameBudget;
+
 		public Skin getSkin() {
 			if (skin == null) {
 				skin = new Skin(Gdx.files.internal("assets/ui/uiskin.json"));
@@ -78,6 +91,46 @@ public class ConsoleDisplay extends Table {
 			this.keyID = keyID;
 		}
 
+		public int getLogQueueCapacity() {
+			return logQueueCapacity;
+		}
+
+		/**
+		 * @param logQueueCapacity Maximum number of messages that can be logged
+		 *                         between two calls to {@link Console#draw()}.
+		 */
+		public void setLogQueueCapacity(int logQueueCapacity) {
+			this.logQueueCapacity = logQueueCapacity;
+		}
+
+		public LogOverflowPolicy getLogOverflowPolicy() {
+			return logOverflowPolicy;
+		}
+
+		/**
+		 * @param logOverflowPolicy What to do when more than
+		 *                          {@link #getLogQueueCapacity()} messages are
+		 *                          logged between two draws.
+		 */
+		public void setLogOverflowPolicy(LogOverflowPolicy logOverflowPolicy) {
+			this.logOverflowPolicy = logOverflowPolicy;
+		}
+
+		public float getFrameBudget() {
+			return frameBudget;
+		}
+
+		/**
+		 * @param frameBudget Time in milliseconds the console may spend per frame
+		 *                    showing new entries of the log, or 0 for no limit.
+		 *                    Defaults to 0, all rows are laid out in the frame
+		 *                    they become visible.
+		 * @see LogView#setFrameBudget(float)
+		 */
+		public void setFrameBudget(float frameBudget) {
+			this.frameBudget = frameBudget;
+		}
+
 		public Drawable getMouseHoverDrawable() {
 			if (mouseHoverDrawable == null) {
 				mouseHoverDrawable = createColorDrawable(new Color(1, 0, 0, 0.25f));
@@ -132,13 +185,15 @@ public class ConsoleDisplay extends Table {
 		TextFieldStyle tfs = skin.get(TextFieldStyle.class);
 		tfs.font = skin.getFont(fontName);
 
-		labels = new Array<Label>();
-
-		logEntries = new Table(skin);
+		for (LogLevel level : LogLevel.values()) {
+			labelStyles[level.ordinal()] = new LabelStyle(skin.getFont(fontName), level.getColor());
+		}
+		logView = new LogView(this, log);
+		logView.setFrameBudget(settings.getFrameBudget());
 		input = new TextField("", tfs);
 		input.setTextFieldListener(new FieldListener(console));
 
-		scroll = new ScrollPane(logEntries, skin);
+		scroll = new ScrollPane(logView, skin);
 		scroll.setFadeScrollBars(false);
 		scroll.setScrollbarsOnTop(false);
 		scroll.setOverscroll(false, false);
@@ -161,33 +216,8 @@ public class ConsoleDisplay extends Table {
 	}
 
 	protected void refresh() {
-		Array<LogEntry> entries = log.getLogEntries();
-		logEntries.clear();
-
-		// expand first so labels start at the bottom
-		logEntries.add().expand().fill().row();
-		int size = entries.size;
-		for (int i = 0; i < size; i++) {
-			LogEntry le = entries.get(i);
-			Label l;
-			// recycle the labels so we don't create new ones every refresh
-			if (labels.size > i) {
-				l = labels.get(i);
-			} else {
-				l = new Label("", skin, fontName, LogLevel.DEFAULT.getColor());
-				l.setWrap(true);
-				labels.add(l);
-			}
-			sb.setLength(0);
-			l.setText(le.addConsoleString(sb));
-			l.setUserObject(le);
-
-			LabelStyle lb = new LabelStyle();
-			lb.font = skin.getFont(fontName);
-			lb.fontColor = le.getColor();
-			l.setStyle(lb);
-			logEntries.add(l).expandX().fillX().top().left().padLeft(4).row();
-		}
+		logView.update();
+		selections.removeBefore(log.getFirstSequence());
 		scroll.validate();
 		scroll.setScrollPercentY(1);
 	}
@@ -218,67 +248,105 @@ public class ConsoleDisplay extends Table {
 		stage.setScrollFocus(null);
 	}
 
-	public LogEntry getHoveredLogEntry() {
-		Vector3 stageCoords = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0f);
+	/**
+	 * @return Sequence number of the entry under the mouse, or -1 if the mouse is
+	 *         not over an entry.
+	 */
+	public long getHoveredSequence() {
+		stageCoords.set(Gdx.input.getX(), Gdx.input.getY(), 0f);
 		stage.getCamera().unproject(stageCoords);
+		logView.stageToLocalCoordinates(localCoords.set(stageCoords.x, stageCoords.y));
+		return logView.getSequenceAt(localCoords.x, localCoords.y);
+	}
 
-		float x = stageCoords.x;
-		float y = stageCoords.y;
-
-		for (Label l : labels) {
-			Vector2 localToStage = l.localToStageCoordinates(new Vector2());
-
-			float x1 = localToStage.x;
-			float x2 = x1 + l.getWidth();
-			float y1 = localToStage.y;
-			float y2 = y1 + l.getHeight();
-
-			LabelStyle ls = l.getStyle();
-			if (ls == null)
-				ls = new LabelStyle();
-			if (x >= x1 && x <= x2 && y >= y1 && y <= y2) {
-				if (l.getUserObject() != null && l.getUserObject() instanceof LogEntry) {
-					return (LogEntry) l.getUserObject();
-				}
-				return null;
-			}
-		}
-		return null;
+	/** @return The entry under the mouse, or null. */
+	public LogEntry getHoveredLogEntry() {
+		long sequence = getHoveredSequence();
+		return sequence == -1 ? null : log.getBySequence(sequence);
 	}
 
 	public void updateLabelBackground() {
 		if (mouseHoverDrawable == null && selectedDrawable == null)
 			return;
-		LogEntry logEntry = getHoveredLogEntry();
-		for (Label l : labels) {
-			LabelStyle ls = l.getStyle();
-			if (l.getUserObject() == null || !(l.getUserObject() instanceof LogEntry))
-				continue;
-			LogEntry le = (LogEntry) l.getUserObject();
-			if (selections.contains(le, true)) {
-				if (ls.background != selectedDrawable) {
-					ls.background = selectedDrawable;
-				}
-			} else if (logEntry == le) {
-				if (ls.background != mouseHoverDrawable) {
-					ls.background = mouseHoverDrawable;
-				}
-			} else {
-				if (ls.background != null) {
-					ls.background = null;
-				}
-			}
+		long hovered = getHoveredSequence();
+		hoveredSequence = hovered;
+		for (int i = 0; i < logView.getRowCount(); i++) {
+			long sequence = logView.getRowSequence(i);
+			logView.getRowLabel(i).setBackground(getBackground(hovered == sequence, selections.contains(sequence)));
 		}
 	}
 
+	/**
+	 * Updates the label backgrounds if the mouse moved onto another entry.
+	 */
+	public void updateHover() {
+		if (getHoveredSequence() != hoveredSequence) {
+			updateLabelBackground();
+		}
+	}
+
+	/**
+	 * @return The style shared by the labels of all entries with the given
+	 *         level.
+	 */
+	LabelStyle getLabelStyle(LogLevel level) {
+		return labelStyles[level.ordinal()];
+	}
+
+	/**
+	 * @return The background of an entry's label, a selected entry is shown as
+	 *         selected even when hovered.
+	 */
+	Drawable getBackground(boolean hovered, boolean selected) {
+		if (selected) {
+			return selectedDrawable;
+		}
+		return hovered ? mouseHoverDrawable : null;
+	}
+
+	/**
+	 * Only shows the entries matching the filter, selected entries that are
+	 * hidden by the filter are deselected.
+	 *
+	 * @see LogView#setFilter(Pattern, LogLevel...)
+	 */
+	public void setFilter(Pattern pattern, LogLevel... levels) {
+		logView.setFilter(pattern, levels);
+		selections.retain(new LongPredicate() {
+			@Override
+			public boolean test(long sequence) {
+				return logView.passesFilter(sequence);
+			}
+		});
+		updateLabelBackground();
+	}
+
+	public void clearFilter() {
+		setFilter(null);
+	}
+
+	public LogView getLogView() {
+		return logView;
+	}
+
 	public Console getConsole() {
 		return console;
 	}
 
-	public Array<LogEntry> getSelections() {
+	/** @return The selected entries. */
+	public LogSelection getSelections() {
 		return selections;
 	}
 
+	public Log getLog() {
+		return log;
+	}
+
+	/**
+	 * @return A copy of the log's entries, see {@link Log#getLogEntries()}.
+	 * @deprecated Use {@link #getLog()} and {@link Log#get(int)} instead.
+	 */
+	@Deprecated
 	public Array<LogEntry> getLogEntries() {
 		return log.getLogEntries();
 	}
@@ -4,14 +4,14 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
-import com.badlogic.gdx.utils.Array;
 import com.strongjoshua.console.Console;
+import com.strongjoshua.console.log.Log;
 import com.strongjoshua.console.log.LogEntry;
 
 public class DisplayListener extends InputListener {
 	private final Console console;
 	private final ConsoleDisplay display;
-	private LogEntry lastSelected;
+	private long lastSelected = -1;
 	private StringBuilder sb = new StringBuilder();
 
 	public DisplayListener(ConsoleDisplay display) {
@@ -45,17 +45,22 @@ public class DisplayListener extends InputListener {
 
 		else if (Gdx.input.isKeyPressed(Keys.CONTROL_LEFT) && Gdx.input.isKeyPressed(Keys.A)) {
 			// [L-CTRL] + [A] -> select all
-			Array<LogEntry> selections = display.getSelections();
+			LogSelection selections = display.getSelections();
 			selections.clear();
-			selections.addAll(display.getLogEntries());
+			Log log = display.getLog();
+			display.getLogView().select(selections, log.getFirstSequence(), log.getNextSequence() - 1);
 			display.updateLabelBackground();
 			return true;
 		} else if (Gdx.input.isKeyPressed(Keys.CONTROL_LEFT) && Gdx.input.isKeyPressed(Keys.C)) {
 			// [L-CTRL] + [A] -> to clipboard
 			sb.setLength(0);
-			Array<LogEntry> selections = display.getSelections();
-			for (LogEntry le : selections) {
-				le.addConsoleString(sb).append("\n");
+			LogSelection selections = display.getSelections();
+			Log log = display.getLog();
+			for (long sequence = selections.next(log.getFirstSequence()); sequence != -1; sequence = selections
+					.next(sequence + 1)) {
+				LogEntry le = log.getBySequence(sequence);
+				if (le != null)
+					le.addConsoleString(sb).append("\n");
 			}
 			Gdx.app.getClipboard().setContents(sb.toString());
 		}
@@ -82,20 +87,20 @@ public class DisplayListener extends InputListener {
 		if (display.getSelectDrawable() == null)
 			return;
 
-		Array<LogEntry> selections = display.getSelections();
-		LogEntry le = display.getHoveredLogEntry();
-		if (le != null) {
+		LogSelection selections = display.getSelections();
+		long le = display.getHoveredSequence();
+		if (le != -1) {
 			if (Gdx.input.isKeyPressed(Keys.CONTROL_LEFT)
 					&& !Gdx.input.isKeyPressed(Keys.SHIFT_LEFT)) {
 				// [L-CTRL] (add/remove single selection)
-				if (selections.contains(le, true)) {
-					selections.removeValue(le, true);
+				if (selections.contains(le)) {
+					selections.remove(le);
 				} else {
 					selections.add(le);
 				}
 			} else if (Gdx.input.isKeyPressed(Keys.SHIFT_LEFT)) {
 				// [L-SHIFT] + optional [L-CTRL] (add/set multi selection)
-				if (selections.size == 0)
+				if (selections.isEmpty() || lastSelected == -1)
 					return;
 
 				// if [L-CTRL] is not pressed reset selections
@@ -103,24 +108,16 @@ public class DisplayListener extends InputListener {
 					selections.clear();
 				}
 
-				// build from-/to-index
-				int selectedIndex = display.getLogEntries().indexOf(le, true);
-				int lastIndex = display.getLogEntries().indexOf(lastSelected, true);
-
-				int fromIndex = selectedIndex < lastIndex ? selectedIndex : lastIndex;
-				int toIndex = selectedIndex < lastIndex ? lastIndex : selectedIndex;
-				for (int index = fromIndex; index <= toIndex; index++) {
-					selections.add(display.getLogEntries().get(index));
-				}
+				// build from-/to-sequence, skipping evicted entries
+				Log log = display.getLog();
+				long from = Math.max(Math.min(le, lastSelected), log.getFirstSequence());
+				long to = Math.max(le, lastSelected);
+				display.getLogView().select(selections, from, to);
 			} else {
 				// single selection (reset current selections)
 				selections.clear();
-				if (selections.contains(le, true)) {
-					selections.removeValue(le, true);
-				} else {
-					lastSelected = le;
-					selections.add(le);
-				}
+				lastSelected = le;
+				selections.add(le);
 			}
 		} else {
 			selections.clear();
@@ -130,6 +127,8 @@ public class DisplayListener extends InputListener {
 
 	@Override
 	public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+		if (console.isDisabled() || !console.isVisible())
+			return false;
 		handleFocus(event);
 		handleSelections(event);
 		return false;
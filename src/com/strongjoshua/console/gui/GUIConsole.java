@@ -13,8 +13,8 @@
 
 package com.strongjoshua.console.gui;
 
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
@@ -31,10 +31,14 @@ import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.strongjoshua.console.AbstractConsole;
 import com.strongjoshua.console.Console;
 import com.strongjoshua.console.gui.ConsoleDisplay.ConsoleSettings;
 import com.strongjoshua.console.log.LogLevel;
+import com.strongjoshua.console.log.LogOverflowPolicy;
+import com.strongjoshua.console.log.LogQueue;
+import com.strongjoshua.console.log.LogSnapshot;
 
 /**
  * A simple console that allows live logging, and live execution of methods,
@@ -45,6 +49,10 @@ import com.strongjoshua.console.log.LogLevel;
  * @author StrongJoshua
  */
 public class GUIConsole extends AbstractConsole {
+	/** Time in nanoseconds snapshots are published after another thread last asked for one. */
+	private static final long SNAPSHOT_LAPSE = 1000000000L;
+	/** Time in nanoseconds another thread waits for a snapshot once publishing lapsed. */
+	private static final long SNAPSHOT_WAIT = 100000000L;
 
 	private int keyID;
 
@@ -58,8 +66,20 @@ public class GUIConsole extends AbstractConsole {
 	private InputMultiplexer multiplexer;
 	private Stage stage;
 	private Window consoleWindow;
-	private final ReadWriteLock rwl = new ReentrantReadWriteLock();
+	private final LogQueue logQueue;
+	private final Thread renderThread;
+	private volatile boolean clearFlag = false;
+	private volatile LogSnapshot logSnapshot = LogSnapshot.EMPTY;
+	// snapshots are published while other threads read them, see getLogSnapshot()
+	private volatile boolean snapshotRequested = false;
+	private volatile boolean publishingSnapshots = false;
+	private volatile int snapshotPublications;
+	private long lastSnapshotRequest;
 	private boolean refreshFlag = true;
+	// refresh at the next draw even if the refresh rate would delay it
+	private boolean immediateRefresh = true;
+	private long refreshInterval = 0;
+	private long lastRefresh;
 
 	private float foregroundTransparency = 1f;
 	private float backgroundTransparency = 1f;
@@ -78,6 +98,8 @@ public class GUIConsole extends AbstractConsole {
 	 */
 	public GUIConsole(ConsoleSettings settings) {
 		this.keyID = settings.getKeyID();
+		logQueue = new LogQueue(settings.getLogQueueCapacity(), settings.getLogOverflowPolicy());
+		renderThread = Thread.currentThread();
 		stage = new Stage();
 		display = new ConsoleDisplay(stage, log, this, settings);
 		logToSystem = false;
@@ -100,10 +122,14 @@ public class GUIConsole extends AbstractConsole {
 		consoleWindow.setTouchable(Touchable.enabled);
 		stage.addListener(new InputListener() {
 
+			private final Vector2 consoleWindowStageCoords = new Vector2();
+
 			@Override
 			public boolean mouseMoved(InputEvent event, float x, float y) {
-				Vector2 consoleWindowStageCoords = new Vector2();
-				consoleWindow.localToStageCoordinates(consoleWindowStageCoords);
+				if (disabled || !visibile) {
+					return false;
+				}
+				consoleWindow.localToStageCoordinates(consoleWindowStageCoords.set(0, 0));
 				float x1 = consoleWindowStageCoords.x;
 				float y1 = consoleWindowStageCoords.y;
 				float x2 = x1 + consoleWindow.getWidth();
@@ -114,7 +140,7 @@ public class GUIConsole extends AbstractConsole {
 						updateTransparency();
 					}
 
-					display.updateLabelBackground();
+					display.updateHover();
 				} else {
 					if (captured) {
 						captured = false;
@@ -157,12 +183,13 @@ public class GUIConsole extends AbstractConsole {
 	 */
 	@Override
 	public void clear() {
-		rwl.writeLock().lock();
-		try {
-			log.getLogEntries().clear();
+		logQueue.clear();
+		if (Thread.currentThread() == renderThread) {
+			log.clear();
 			refreshFlag = true;
-		} finally {
-			rwl.writeLock().unlock();
+			immediateRefresh = true;
+		} else {
+			clearFlag = true;
 		}
 	}
 
@@ -284,23 +311,18 @@ public class GUIConsole extends AbstractConsole {
 	 */
 	@Override
 	public void draw() {
-		if (disabled) {
+		drainLogQueue();
+		if (disabled || !visibile) {
+			// dormant: nothing but taking in the queued messages, the display catches up once shown
 			return;
 		}
 		stage.act();
 
-		if (!visibile) {
-			return;
-		}
-		if (refreshFlag) {
-			if (rwl.writeLock().tryLock()) {
-				try {
-					display.refresh();
-					refreshFlag = false;
-				} finally {
-					rwl.writeLock().unlock();
-				}
-			}
+		if (refreshFlag && (immediateRefresh || TimeUtils.timeSinceNanos(lastRefresh) >= refreshInterval)) {
+			display.refresh();
+			refreshFlag = false;
+			immediateRefresh = false;
+			lastRefresh = TimeUtils.nanoTime();
 		}
 		stage.draw();
 	}
@@ -338,22 +360,154 @@ public class GUIConsole extends AbstractConsole {
 		}
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see com.strongjoshua.console.Console#log(java.lang.String, com.strongjoshua.console.GUIConsole.LogLevel)
+	/**
+	 * Messages logged on the thread that created the console are added to the
+	 * log right away. Messages from any other thread are queued without locking
+	 * and added in one batch on the next {@link #draw()}.
 	 */
 	@Override
-	public void log(String msg, LogLevel level) {
-		rwl.writeLock().lock();
-		try {
-			super.log(msg, level);
+	protected void appendEntry(String msg, LogLevel level) {
+		if (Thread.currentThread() == renderThread) {
+			drainLogQueue();
+			log.addEntry(msg, level);
 			refreshFlag = true;
-		} finally {
-			rwl.writeLock().unlock();
+			if (level == LogLevel.COMMAND) {
+				// echo typed commands right away
+				immediateRefresh = true;
+			}
+		} else {
+			logQueue.offer(msg, level, TimeUtils.millis());
 		}
 	}
 
+	/** Moves all queued log messages into the log. Only called on the render thread. */
+	private void drainLogQueue() {
+		if (clearFlag) {
+			clearFlag = false;
+			log.clear();
+			refreshFlag = true;
+			immediateRefresh = true;
+		}
+		if (logQueue.drain(log) > 0) {
+			refreshFlag = true;
+		}
+		if (snapshotRequested) {
+			snapshotRequested = false;
+			lastSnapshotRequest = TimeUtils.nanoTime();
+			publishingSnapshots = true;
+		} else if (publishingSnapshots && TimeUtils.timeSinceNanos(lastSnapshotRequest) > SNAPSHOT_LAPSE) {
+			// nobody reads the snapshots anymore
+			publishingSnapshots = false;
+		}
+		if (publishingSnapshots) {
+			logSnapshot = log.snapshot();
+			snapshotPublications++;
+		}
+	}
+
+	/**
+	 * On the drawing thread, a snapshot of the current log is taken. Other
+	 * threads get the snapshot published by the last {@link #draw()}, without
+	 * waiting for the drawing thread. Snapshots are published at every draw
+	 * while other threads keep asking for them, and stop a second after the
+	 * last request. The first request after that waits up to 100 milliseconds
+	 * for the next draw to publish a current snapshot.
+	 */
+	@Override
+	public LogSnapshot getLogSnapshot() {
+		if (Thread.currentThread() == renderThread) {
+			return log.snapshot();
+		}
+		snapshotRequested = true;
+		if (!publishingSnapshots) {
+			// the last published snapshot may be outdated, or empty if none was published yet
+			int publications = snapshotPublications;
+			long deadline = TimeUtils.nanoTime() + SNAPSHOT_WAIT;
+			while (snapshotPublications == publications && TimeUtils.nanoTime() < deadline) {
+				LockSupport.parkNanos(1000000L);
+			}
+		}
+		return logSnapshot;
+	}
+
+	/**
+	 * @param policy What to do when more messages are logged from other threads
+	 *               between two draws than the queue can hold.
+	 */
+	public void setLogOverflowPolicy(LogOverflowPolicy policy) {
+		logQueue.setOverflowPolicy(policy);
+	}
+
+	/**
+	 * @return Number of messages logged from other threads that were discarded
+	 *         because the queue was full.
+	 */
+	public long getDroppedLogEntries() {
+		return logQueue.getDroppedCount();
+	}
+
+	/**
+	 * Limits how often the log view is refreshed. All entries logged between two
+	 * refreshes are shown in one update. Commands typed into the console are
+	 * always shown right away.
+	 *
+	 * @param hz Maximum number of refreshes per second, or 0 to refresh on every
+	 *           draw with new entries.
+	 */
+	public void setMaxRefreshRate(float hz) {
+		refreshInterval = hz > 0 ? (long) (1000000000 / hz) : 0;
+	}
+
+	public float getMaxRefreshRate() {
+		return refreshInterval > 0 ? 1000000000f / refreshInterval : 0;
+	}
+
+	/**
+	 * @param millis Time in milliseconds the console may spend per frame showing
+	 *               new entries of the log, or 0 for no limit, the default.
+	 *               With a limit, a large backlog is indexed and filtered over
+	 *               several frames, and the visible rows are laid out newest
+	 *               first.
+	 */
+	public void setFrameBudget(float millis) {
+		display.getLogView().setFrameBudget(millis);
+	}
+
+	public float getFrameBudget() {
+		return display.getLogView().getFrameBudget();
+	}
+
+	/**
+	 * @return Number of log entries the display did not catch up with yet
+	 *         because of the frame budget, including visible rows that were not
+	 *         laid out yet.
+	 * @see #setFrameBudget(float)
+	 */
+	public long getDisplayBacklog() {
+		return display.getLogView().getBacklog();
+	}
+
+	/**
+	 * Only shows the log entries with one of the given levels whose message
+	 * contains a match of the pattern. The log itself keeps all entries, and
+	 * entries logged later are filtered as they arrive. Must be called on the
+	 * render thread.
+	 *
+	 * @param pattern Pattern to find in the message, or null to show entries
+	 *                with any message.
+	 * @param levels  Levels to show, or none to show all levels.
+	 */
+	public void setLogFilter(Pattern pattern, LogLevel... levels) {
+		display.setFilter(pattern, levels);
+	}
+
+	/**
+	 * Shows all log entries again. Must be called on the render thread.
+	 */
+	public void clearLogFilter() {
+		display.clearFilter();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -423,6 +577,7 @@ public class GUIConsole extends AbstractConsole {
 			Gdx.input.setInputProcessor(appInput);
 		}
 		stage.dispose();
+		super.dispose();
 	}
 
 	@Override
@@ -433,6 +588,7 @@ public class GUIConsole extends AbstractConsole {
 	@Override
 	public void setVisible(boolean visible) {
 		this.visibile = visible;
+		immediateRefresh |= visible;
 		setFocus(visible);
 		consoleWindow.setTouchable(visible ? Touchable.childrenOnly : Touchable.disabled);
 		display.setHidden(!visible);
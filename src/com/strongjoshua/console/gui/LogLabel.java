@@ -0,0 +1,38 @@
+package com.strongjoshua.console.gui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+
+/**
+ * A row of the {@link LogView}. The hover and selection background is drawn by
+ * the label itself, so it can be swapped without changing the label's
+ * {@link LabelStyle}, which is shared by all rows of the same level.
+ */
+public class LogLabel extends Label {
+	private Drawable background;
+
+	LogLabel(LabelStyle style) {
+		super("", style);
+		setWrap(true);
+	}
+
+	public void setBackground(Drawable background) {
+		this.background = background;
+	}
+
+	public Drawable getBackground() {
+		return background;
+	}
+
+	@Override
+	public void draw(Batch batch, float parentAlpha) {
+		if (background != null) {
+			Color color = getColor();
+			batch.setColor(color.r, color.g, color.b, color.a * parentAlpha);
+			background.draw(batch, getX(), getY(), getWidth(), getHeight());
+		}
+		super.draw(batch, parentAlpha);
+	}
+}
@@ -0,0 +1,166 @@
+package com.strongjoshua.console.gui;
+
+import java.util.function.LongPredicate;
+
+/**
+ * The selected log entries, stored as a bitset over their sequence numbers.
+ * Checking if an entry is selected takes constant time and selecting a range
+ * of entries only touches the words covering the range.
+ */
+public class LogSelection {
+	private static final long[] EMPTY = new long[0];
+
+	/** Sequence number of the first bit, always a multiple of 64. */
+	private long base;
+	private long[] words = EMPTY;
+	private int size;
+
+	public boolean contains(long sequence) {
+		long index = sequence - base;
+		if (index < 0 || index >= (long) words.length << 6) {
+			return false;
+		}
+		return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	public void add(long sequence) {
+		add(sequence, sequence);
+	}
+
+	/**
+	 * Selects all entries from one sequence number to another, both inclusive.
+	 */
+	public void add(long from, long to) {
+		if (from > to) {
+			return;
+		}
+		ensureCapacity(from, to);
+		int fromWord = (int) ((from - base) >>> 6), toWord = (int) ((to - base) >>> 6);
+		for (int i = fromWord; i <= toWord; i++) {
+			long mask = -1L;
+			if (i == fromWord) {
+				mask &= -1L << (from - base);
+			}
+			if (i == toWord) {
+				mask &= -1L >>> (63 - ((to - base) & 63));
+			}
+			size += Long.bitCount(mask & ~words[i]);
+			words[i] |= mask;
+		}
+	}
+
+	public void remove(long sequence) {
+		if (contains(sequence)) {
+			long index = sequence - base;
+			words[(int) (index >>> 6)] &= ~(1L << index);
+			size--;
+		}
+	}
+
+	/**
+	 * Deselects all entries before the given sequence number, e.g. because they
+	 * were evicted from the log.
+	 */
+	public void removeBefore(long sequence) {
+		if (size == 0 || sequence <= base) {
+			return;
+		}
+		long end = base + ((long) words.length << 6);
+		if (sequence >= end) {
+			clear();
+			return;
+		}
+		int word = (int) ((sequence - base) >>> 6);
+		for (int i = 0; i < word; i++) {
+			size -= Long.bitCount(words[i]);
+		}
+		long mask = -1L << (sequence - base);
+		size -= Long.bitCount(words[word] & ~mask);
+		words[word] &= mask;
+
+		// drop the words before the first one still in use
+		System.arraycopy(words, word, words, 0, words.length - word);
+		for (int i = words.length - word; i < words.length; i++) {
+			words[i] = 0;
+		}
+		base += (long) word << 6;
+	}
+
+	public void clear() {
+		for (int i = 0; i < words.length; i++) {
+			words[i] = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Deselects all entries the given predicate rejects. Only visits the
+	 * selected entries.
+	 */
+	public void retain(LongPredicate keep) {
+		for (int i = 0; i < words.length; i++) {
+			long bits = words[i];
+			while (bits != 0) {
+				long bit = bits & -bits;
+				bits &= ~bit;
+				if (!keep.test(base + ((long) i << 6) + Long.numberOfTrailingZeros(bit))) {
+					words[i] &= ~bit;
+					size--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The smallest selected sequence number greater than or equal to the
+	 *         given one, or -1 if there is none.
+	 */
+	public long next(long sequence) {
+		long index = Math.max(0, sequence - base);
+		int word = (int) (index >>> 6);
+		if (word >= words.length) {
+			return -1;
+		}
+		long bits = words[word] & (-1L << index);
+		while (true) {
+			if (bits != 0) {
+				return base + ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+			}
+			if (++word == words.length) {
+				return -1;
+			}
+			bits = words[word];
+		}
+	}
+
+	/**
+	 * @return Number of selected entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private void ensureCapacity(long from, long to) {
+		if (size == 0) {
+			// nothing to keep, start the bitset at the new range
+			base = from & ~63L;
+		} else if (from < base) {
+			long newBase = from & ~63L;
+			int shift = (int) ((base - newBase) >>> 6);
+			long[] newWords = new long[words.length + shift];
+			System.arraycopy(words, 0, newWords, shift, words.length);
+			words = newWords;
+			base = newBase;
+		}
+		int required = (int) ((to - base) >>> 6) + 1;
+		if (required > words.length) {
+			long[] newWords = new long[Math.max(required, words.length * 2)];
+			System.arraycopy(words, 0, newWords, 0, words.length);
+			words = newWords;
+		}
+	}
+}
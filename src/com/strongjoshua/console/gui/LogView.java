@@ -0,0 +1,585 @@
+package com.strongjoshua.console.gui;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.strongjoshua.console.log.Log;
+import com.strongjoshua.console.log.LogEntry;
+import com.strongjoshua.console.log.LogLevel;
+
+/**
+ * Shows the entries of a {@link Log} inside a {@link ScrollPane}. Only the
+ * rows inside the visible area of the scroll pane, plus a few rows above and
+ * below, are shown by {@link Label}s, which are recycled as the view scrolls.
+ * The cost of laying out the view therefore depends on the size of the window
+ * instead of the size of the log.
+ * <p>
+ * Rows are assumed to be one line high until they are shown for the first time
+ * and their wrapped height is measured. {@link #update()} only adds the rows of
+ * new entries and drops the rows of evicted ones, rows that did not change keep
+ * their labels and measured heights.
+ * <p>
+ * The work per frame can be limited to a time budget, see
+ * {@link #setFrameBudget(float)}. New entries are then indexed and filtered in
+ * chunks over several frames, oldest first, and the visible rows that were not
+ * shown before are laid out over several frames, newest first.
+ * <p>
+ * The view can be filtered by level and by a pattern, see
+ * {@link #setFilter(Pattern, LogLevel...)}. The sequence numbers of the
+ * entries of each level are indexed as entries are added, so changing the
+ * filter only merges these indexes and never rebuilds the log.
+ */
+public class LogView extends WidgetGroup {
+	private static final float PAD_LEFT = 4;
+	private static final int OVERSCAN_ROWS = 4;
+	private static final LogLevel[] LEVELS = LogLevel.values();
+	/** Entries indexed or filtered between two checks of the frame budget. */
+	private static final int CHUNK_SIZE = 256;
+
+	private final ConsoleDisplay display;
+	private final Log log;
+	private final StringBuilder sb = new StringBuilder();
+
+	/** Sequence numbers the rows were last updated to, from the oldest entry to the next entry to index. */
+	private long firstSequence, endSequence;
+	/** The next indexed entry to check against the filter, rows exist for the entries before. */
+	private long filteredSequence;
+	/** Next sequence number of the log at the last update, the view catches up to it as the frame budget allows. */
+	private long targetSequence;
+	/** Sequence numbers of the entries of each level, indexed by the level's ordinal. */
+	private final SequenceList[] levelSequences = new SequenceList[LEVELS.length];
+	/** Sequence numbers of the entries passing the filter, one per row. */
+	private final SequenceList rowSequences = new SequenceList();
+	/** Position of the next sequence number to merge in each level's index. */
+	private final int[] mergePositions = new int[LEVELS.length];
+	private final RowOffsets rows;
+	/** Repeat count of the newest entry when its row was added or last updated. */
+	private int lastRepeatCount;
+	/** {@link Log#getVersion() Version} of the log the rows were last updated to. */
+	private long version = -1;
+	private float estimatedHeight;
+	private float measuredWidth = -1;
+
+	// the filter, no level filter if null
+	private boolean[] levelFilter;
+	private Pattern pattern;
+	private Matcher matcher;
+
+	// the rows currently shown by labels, oldest first
+	private Array<LogLabel> rowLabels = new Array<LogLabel>();
+	private Array<LogLabel> oldRowLabels = new Array<LogLabel>();
+	private LongArray labelSequences = new LongArray();
+	private LongArray oldLabelSequences = new LongArray();
+	private final Array<LogLabel> freeLabels = new Array<LogLabel>();
+	/** Part of the view covered by the shown rows, the view is laid out again once the visible area leaves it. */
+	private float shownBottom, shownTop;
+
+	private boolean inLayout;
+	private boolean scrollToBottom;
+	private long frameBudget;
+	/** End of the current frame's budget, set when the view acts. */
+	private long frameDeadline;
+	/** Rows of the visible area left for the next frames. */
+	private int unlaidRows;
+
+	LogView(ConsoleDisplay display, Log log) {
+		this.display = display;
+		this.log = log;
+		for (int i = 0; i < levelSequences.length; i++) {
+			levelSequences[i] = new SequenceList();
+		}
+
+		LogLabel label = obtainLabel();
+		label.setWrap(false);
+		label.setText("X");
+		estimatedHeight = label.getPrefHeight();
+		label.setWrap(true);
+		freeLabel(label);
+		rows = new RowOffsets(estimatedHeight);
+	}
+
+	/**
+	 * Drops all rows and creates one unmeasured row per entry of the log that
+	 * passes the filter, as far as the frame budget allows.
+	 */
+	public void rebuild() {
+		firstSequence = log.getFirstSequence();
+		endSequence = firstSequence;
+		filteredSequence = firstSequence;
+		for (SequenceList list : levelSequences) {
+			list.clear();
+		}
+		rowSequences.clear();
+		rows.clear();
+		lastRepeatCount = 0;
+		version = log.getVersion();
+		targetSequence = log.getNextSequence();
+		catchUp();
+		freeLabels();
+		invalidateHierarchy();
+	}
+
+	/**
+	 * Brings the rows up to date with the log: rows of evicted entries are
+	 * dropped, rows for new entries are added and the newest row is measured
+	 * again if its repeat count changed.
+	 */
+	public void update() {
+		if (log.getVersion() == version) {
+			return;
+		}
+		version = log.getVersion();
+		long logFirst = log.getFirstSequence();
+		if (log.size() == 0 || logFirst >= endSequence || logFirst < firstSequence) {
+			// cleared, or nothing left to keep
+			if (endSequence > firstSequence || log.size() > 0) {
+				rebuild();
+			}
+			return;
+		}
+
+		int oldRowCount = rowSequences.size();
+		boolean evicted = logFirst > firstSequence;
+		if (evicted) {
+			// their labels are freed by the next layout
+			for (SequenceList list : levelSequences) {
+				list.removeBefore(logFirst);
+			}
+			rows.removeFirst(rowSequences.removeBefore(logFirst));
+			firstSequence = logFirst;
+		}
+		// only the newest entry can change, when a repeated message was collapsed into it
+		boolean repeated = false;
+		LogEntry newest = log.getBySequence(endSequence - 1);
+		if (newest != null && newest.getRepeatCount() != lastRepeatCount) {
+			lastRepeatCount = newest.getRepeatCount();
+			if (rowSequences.size() > 0 && rowSequences.last() == endSequence - 1) {
+				rows.unmeasure(rowSequences.size() - 1);
+				int shown = indexOf(labelSequences, endSequence - 1);
+				if (shown >= 0) {
+					setText(rowLabels.get(shown), newest);
+				}
+				repeated = true;
+			}
+		}
+		targetSequence = log.getNextSequence();
+		catchUp();
+		if (repeated || evicted || rowSequences.size() != oldRowCount) {
+			invalidateHierarchy();
+		}
+	}
+
+	/**
+	 * Only shows entries matching the given filter. Switching the level filter
+	 * only merges the per level indexes, the pattern is matched against the
+	 * entries of the selected levels. With a frame budget, the entries are
+	 * filtered over several frames.
+	 *
+	 * @param pattern Pattern an entry's message has to contain a match of, or
+	 *                null to not filter by message.
+	 * @param levels  Levels to show, or none to show all levels.
+	 */
+	public void setFilter(Pattern pattern, LogLevel... levels) {
+		levelFilter = null;
+		if (levels.length > 0) {
+			levelFilter = new boolean[LEVELS.length];
+			for (LogLevel level : levels) {
+				levelFilter[level.ordinal()] = true;
+			}
+		}
+		this.pattern = pattern;
+		matcher = pattern == null ? null : pattern.matcher("");
+
+		rowSequences.clear();
+		rows.clear();
+		filteredSequence = firstSequence;
+		catchUp();
+		freeLabels();
+		scrollToBottom = true;
+		invalidateHierarchy();
+	}
+
+	/**
+	 * Shows all entries again.
+	 */
+	public void clearFilter() {
+		setFilter(null);
+	}
+
+	public boolean isFiltered() {
+		return levelFilter != null || pattern != null;
+	}
+
+	/**
+	 * @return Whether the entry with the given sequence number is in the log
+	 *         and passes the filter.
+	 */
+	public boolean passesFilter(long sequence) {
+		if (sequence < log.getFirstSequence() || sequence >= log.getNextSequence()) {
+			return false;
+		}
+		LogEntry entry = log.getBySequence(sequence);
+		return (levelFilter == null || levelFilter[entry.getLevel().ordinal()])
+				&& (matcher == null || matcher.reset(entry.getText()).find());
+	}
+
+	/**
+	 * Selects the entries between two sequence numbers, both inclusive, that
+	 * pass the filter.
+	 */
+	public void select(LogSelection selection, long from, long to) {
+		if (!isFiltered()) {
+			selection.add(from, to);
+			return;
+		}
+		int index = rowSequences.indexOf(from);
+		for (int i = index >= 0 ? index : -index - 1; i < rowSequences.size() && rowSequences.get(i) <= to; i++) {
+			selection.add(rowSequences.get(i));
+		}
+	}
+
+	@Override
+	public float getPrefWidth() {
+		return 0;
+	}
+
+	@Override
+	public float getPrefHeight() {
+		return rows.getTotal();
+	}
+
+	@Override
+	public void setCullingArea(Rectangle cullingArea) {
+		super.setCullingArea(cullingArea);
+		if (cullingArea != null && (cullingArea.y < shownBottom || cullingArea.y + cullingArea.height > shownTop)) {
+			invalidate();
+		}
+	}
+
+	@Override
+	public void invalidateHierarchy() {
+		// labels changed while laying out the rows don't change the size of the view
+		if (!inLayout) {
+			super.invalidateHierarchy();
+		}
+	}
+
+	@Override
+	public void layout() {
+		inLayout = true;
+		float width = getWidth();
+		float oldTotalHeight = rows.getTotal();
+		if (width != measuredWidth) {
+			// wrapping changed, all rows have to be measured again
+			measuredWidth = width;
+			rows.unmeasureAll();
+		}
+
+		Rectangle area = getCullingArea();
+		if (width <= PAD_LEFT) {
+			freeLabels();
+			inLayout = false;
+			return;
+		}
+		float overscan = OVERSCAN_ROWS * estimatedHeight;
+		float visibleBottom = area == null ? 0 : area.y - overscan;
+		float visibleTop = area == null ? getHeight() : area.y + area.height + overscan;
+
+		// rows are stacked upwards from the bottom of the view, the newest row at the bottom
+		int last = rows.getRowAt(rows.getTotal() - visibleBottom);
+		float y = rows.getTotal() - rows.getOffset(last + 1);
+		shownBottom = last == rows.size() - 1 ? Float.NEGATIVE_INFINITY : y;
+
+		Array<LogLabel> labels = oldRowLabels;
+		oldRowLabels = rowLabels;
+		rowLabels = labels;
+		LongArray sequences = oldLabelSequences;
+		oldLabelSequences = labelSequences;
+		labelSequences = sequences;
+
+		long deadline = getDeadline();
+		unlaidRows = 0;
+		int first = last;
+		while (first >= 0 && y < visibleTop) {
+			long sequence = rowSequences.get(first);
+			boolean shown = indexOf(oldLabelSequences, sequence) >= 0;
+			if ((!shown || !rows.isMeasured(first)) && rowLabels.size > 0 && TimeUtils.nanoTime() > deadline) {
+				// out of time, the rest of the visible rows follow in the next frames
+				unlaidRows = first - rows.getRowAt(rows.getTotal() - visibleTop) + 1;
+				break;
+			}
+			LogLabel label = takeLabel(sequence);
+			label.setWidth(width - PAD_LEFT);
+			float height = label.getPrefHeight();
+			rows.set(first, height);
+			label.setBounds(PAD_LEFT, y, width - PAD_LEFT, height);
+			rowLabels.add(label);
+			labelSequences.add(sequence);
+			y += height;
+			first--;
+		}
+		first++;
+		shownTop = first == 0 ? Float.POSITIVE_INFINITY : y;
+		rowLabels.reverse();
+		labelSequences.reverse();
+
+		for (LogLabel label : oldRowLabels) {
+			if (label != null) {
+				freeLabel(label);
+			}
+		}
+		oldRowLabels.clear();
+		oldLabelSequences.clear();
+		inLayout = false;
+
+		if (rows.getTotal() != oldTotalHeight) {
+			// keep following the newest entry if it was visible
+			scrollToBottom = area == null || area.y <= 1;
+			invalidateHierarchy();
+		}
+		display.updateLabelBackground();
+	}
+
+	@Override
+	public void act(float delta) {
+		super.act(delta);
+		// shared by catching up with the log and laying out the rows of this frame
+		frameDeadline = TimeUtils.nanoTime() + frameBudget;
+		if (filteredSequence < targetSequence) {
+			catchUp();
+		}
+		if (unlaidRows > 0) {
+			invalidate();
+		}
+		if (scrollToBottom && getParent() instanceof ScrollPane) {
+			scrollToBottom = false;
+			ScrollPane scroll = (ScrollPane) getParent();
+			scroll.validate();
+			scroll.setScrollPercentY(1);
+			scroll.updateVisualScroll();
+		}
+	}
+
+	/**
+	 * @param millis Time in milliseconds the view may spend per frame indexing
+	 *               and filtering new entries and laying out rows that were not
+	 *               shown before, or 0 for no limit, the default. At least one
+	 *               chunk of entries and one row are processed per frame.
+	 */
+	public void setFrameBudget(float millis) {
+		frameBudget = (long) (millis * 1000000);
+	}
+
+	public float getFrameBudget() {
+		return frameBudget / 1000000f;
+	}
+
+	/**
+	 * @return Number of entries that did not fit into the frame budget: entries
+	 *         of the log up to the last {@link #update()} that were not indexed
+	 *         or filtered yet, plus the rows of the visible area that were not
+	 *         laid out yet.
+	 */
+	public long getBacklog() {
+		return Math.max(0, targetSequence - Math.max(filteredSequence, log.getFirstSequence())) + unlaidRows;
+	}
+
+	/**
+	 * @return Number of rows currently shown by labels.
+	 */
+	public int getRowCount() {
+		return rowLabels.size;
+	}
+
+	public LogLabel getRowLabel(int row) {
+		return rowLabels.get(row);
+	}
+
+	public long getRowSequence(int row) {
+		return labelSequences.get(row);
+	}
+
+	/**
+	 * @param x Position in the coordinates of this view.
+	 * @param y Position in the coordinates of this view.
+	 * @return Sequence number of the entry shown at the position, or -1.
+	 */
+	public long getSequenceAt(float x, float y) {
+		Rectangle area = getCullingArea();
+		if (area != null && (y < area.y || y > area.y + area.height)) {
+			return -1;
+		}
+		if (x < PAD_LEFT || x > getWidth() || y < 0 || y > rows.getTotal()) {
+			return -1;
+		}
+		int row = rows.getRowAt(rows.getTotal() - y);
+		if (row == -1) {
+			return -1;
+		}
+		long sequence = rowSequences.get(row);
+		return indexOf(labelSequences, sequence) >= 0 ? sequence : -1;
+	}
+
+	private long getDeadline() {
+		return frameBudget > 0 ? frameDeadline : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Indexes the entries of the log up to the {@link #targetSequence} and adds
+	 * an unmeasured row for each entry passing the filter, in chunks until the
+	 * frame budget is used up. At least one chunk is processed.
+	 */
+	private void catchUp() {
+		long deadline = getDeadline();
+		long logFirst = log.getFirstSequence();
+		// entries evicted before they were indexed or filtered are skipped
+		endSequence = Math.max(endSequence, logFirst);
+		filteredSequence = Math.max(filteredSequence, logFirst);
+		long next = Math.min(targetSequence, log.getNextSequence());
+		int oldRowCount = rowSequences.size();
+		for (boolean first = true; filteredSequence < next && (first || TimeUtils.nanoTime() < deadline); first = false) {
+			if (filteredSequence == endSequence) {
+				indexEntries(Math.min(next, endSequence + CHUNK_SIZE));
+			}
+			filterEntries(Math.min(endSequence, filteredSequence + CHUNK_SIZE));
+		}
+		if (rowSequences.size() != oldRowCount) {
+			rows.add(rowSequences.size() - oldRowCount);
+			invalidateHierarchy();
+		}
+	}
+
+	/**
+	 * Adds the entries up to the given sequence number to the indexes of their
+	 * levels.
+	 */
+	private void indexEntries(long nextSequence) {
+		for (long sequence = endSequence; sequence < nextSequence; sequence++) {
+			LogEntry entry = log.getBySequence(sequence);
+			levelSequences[entry.getLevel().ordinal()].add(sequence);
+			lastRepeatCount = entry.getRepeatCount();
+		}
+		endSequence = nextSequence;
+	}
+
+	/**
+	 * Adds a row for each indexed entry up to the given sequence number that
+	 * passes the filter.
+	 */
+	private void filterEntries(long nextSequence) {
+		if (levelFilter == null) {
+			for (long sequence = filteredSequence; sequence < nextSequence; sequence++) {
+				if (matcher == null || matcher.reset(log.getBySequence(sequence).getText()).find()) {
+					rowSequences.add(sequence);
+				}
+			}
+		} else {
+			mergeLevels(nextSequence);
+		}
+		filteredSequence = nextSequence;
+	}
+
+	/**
+	 * Collects the entries of the filtered levels from the next entry to filter
+	 * up to the given sequence number in sequence order and keeps those matching
+	 * the pattern.
+	 */
+	private void mergeLevels(long nextSequence) {
+		int[] positions = mergePositions;
+		for (int i = 0; i < LEVELS.length; i++) {
+			int index = levelSequences[i].indexOf(filteredSequence);
+			positions[i] = index >= 0 ? index : -index - 1;
+		}
+		while (true) {
+			int next = -1;
+			for (int i = 0; i < LEVELS.length; i++) {
+				SequenceList list = levelSequences[i];
+				if (levelFilter[i] && positions[i] < list.size()
+						&& (next == -1 || list.get(positions[i]) < levelSequences[next].get(positions[next]))) {
+					next = i;
+				}
+			}
+			if (next == -1) {
+				return;
+			}
+			long sequence = levelSequences[next].get(positions[next]++);
+			if (sequence >= nextSequence) {
+				return;
+			}
+			if (matcher == null || matcher.reset(log.getBySequence(sequence).getText()).find()) {
+				rowSequences.add(sequence);
+			}
+		}
+	}
+
+	/**
+	 * Returns the label that showed the entry before, or a free label set up to
+	 * show the entry.
+	 */
+	private LogLabel takeLabel(long sequence) {
+		int index = indexOf(oldLabelSequences, sequence);
+		if (index >= 0 && oldRowLabels.get(index) != null) {
+			LogLabel label = oldRowLabels.get(index);
+			oldRowLabels.set(index, null);
+			return label;
+		}
+		LogLabel label = obtainLabel();
+		setText(label, log.getBySequence(sequence));
+		return label;
+	}
+
+	private void freeLabels() {
+		for (LogLabel label : rowLabels) {
+			freeLabel(label);
+		}
+		rowLabels.clear();
+		labelSequences.clear();
+	}
+
+	/**
+	 * @return Index of the sequence number in the ascending sequence numbers of
+	 *         the shown rows, or a negative value if it is not shown.
+	 */
+	private static int indexOf(LongArray sequences, long sequence) {
+		return Arrays.binarySearch(sequences.items, 0, sequences.size, sequence);
+	}
+
+	private void setText(LogLabel label, LogEntry entry) {
+		sb.setLength(0);
+		if (entry != null) {
+			entry.addConsoleString(sb);
+			LabelStyle style = display.getLabelStyle(entry.getLevel());
+			if (label.getStyle() != style) {
+				label.setStyle(style);
+			}
+		}
+		label.setText(sb);
+	}
+
+	private LogLabel obtainLabel() {
+		LogLabel label;
+		if (freeLabels.size > 0) {
+			label = freeLabels.pop();
+		} else {
+			label = new LogLabel(display.getLabelStyle(LogLevel.DEFAULT));
+			addActor(label);
+		}
+		label.setVisible(true);
+		return label;
+	}
+
+	private void freeLabel(LogLabel label) {
+		label.setVisible(false);
+		label.setBackground(null);
+		freeLabels.add(label);
+	}
+}
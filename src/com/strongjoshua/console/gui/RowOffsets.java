@@ -0,0 +1,177 @@
+package com.strongjoshua.console.gui;
+
+/**
+ * The heights of the rows of a {@link LogView}, kept as prefix sums in a
+ * Fenwick tree. The offset of a row and the row at an offset are found in
+ * O(log n), and changing the height of a row, adding rows at the end and
+ * removing rows at the front stay cheap.
+ * <p>
+ * Rows that were not measured yet count with an estimated height.
+ */
+class RowOffsets {
+	private static final float UNMEASURED = -1;
+
+	private final float estimatedHeight;
+	/** Measured heights, or {@link #UNMEASURED}, of the rows from {@link #start} to {@link #end}. */
+	private float[] heights = new float[0];
+	/** Fenwick tree over the heights, removed rows count as 0. */
+	private double[] tree = new double[1];
+	private int start;
+	private int end;
+	private double total;
+
+	RowOffsets(float estimatedHeight) {
+		this.estimatedHeight = estimatedHeight;
+	}
+
+	public int size() {
+		return end - start;
+	}
+
+	public float getTotal() {
+		return (float) total;
+	}
+
+	public float get(int row) {
+		return effective(heights[start + row]);
+	}
+
+	public boolean isMeasured(int row) {
+		return heights[start + row] != UNMEASURED;
+	}
+
+	public void set(int row, float height) {
+		int index = start + row;
+		double delta = effective(height) - effective(heights[index]);
+		heights[index] = height;
+		if (delta != 0) {
+			update(index, delta);
+		}
+	}
+
+	public void unmeasure(int row) {
+		set(row, UNMEASURED);
+	}
+
+	/**
+	 * Marks all rows as not measured, e.g. because their width changed.
+	 */
+	public void unmeasureAll() {
+		for (int i = start; i < end; i++) {
+			heights[i] = UNMEASURED;
+		}
+		rebuild();
+	}
+
+	/**
+	 * Adds unmeasured rows at the end.
+	 */
+	public void add(int count) {
+		if (end + count > heights.length) {
+			// move the rows to the front and grow if they still don't fit
+			int size = size();
+			float[] newHeights = heights;
+			if (size + count > heights.length || start == 0) {
+				newHeights = new float[Math.max(size + count, heights.length * 2)];
+			}
+			System.arraycopy(heights, start, newHeights, 0, size);
+			heights = newHeights;
+			start = 0;
+			end = size;
+			for (int i = end; i < end + count; i++) {
+				heights[i] = UNMEASURED;
+			}
+			end += count;
+			rebuild();
+			return;
+		}
+		for (int i = end; i < end + count; i++) {
+			heights[i] = UNMEASURED;
+			update(i, estimatedHeight);
+		}
+		end += count;
+	}
+
+	/**
+	 * Removes rows from the front.
+	 */
+	public void removeFirst(int count) {
+		for (int i = start; i < start + count; i++) {
+			update(i, -effective(heights[i]));
+		}
+		start += count;
+	}
+
+	public void clear() {
+		start = 0;
+		end = 0;
+		rebuild();
+	}
+
+	/**
+	 * @return Sum of the heights of the rows before the given row.
+	 */
+	public float getOffset(int row) {
+		return (float) (prefix(start + row) - prefix(start));
+	}
+
+	/**
+	 * @return The row covering the given offset from the top of the first row,
+	 *         clamped to the existing rows, or -1 if there are none.
+	 */
+	public int getRowAt(float offset) {
+		if (end == start) {
+			return -1;
+		}
+		double remaining = offset + prefix(start);
+		int index = 0;
+		for (int step = Integer.highestOneBit(heights.length); step > 0; step >>= 1) {
+			int next = index + step;
+			if (next <= heights.length && tree[next] <= remaining) {
+				index = next;
+				remaining -= tree[next];
+			}
+		}
+		return Math.max(0, Math.min(index, end - 1) - start);
+	}
+
+	private float effective(float height) {
+		return height == UNMEASURED ? estimatedHeight : height;
+	}
+
+	private double prefix(int index) {
+		double sum = 0;
+		for (int i = index; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	private void update(int index, double delta) {
+		for (int i = index + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+		total += delta;
+	}
+
+	/**
+	 * Builds the tree from the heights in linear time.
+	 */
+	private void rebuild() {
+		if (tree.length != heights.length + 1) {
+			tree = new double[heights.length + 1];
+		}
+		total = 0;
+		for (int i = 1; i < tree.length; i++) {
+			int index = i - 1;
+			tree[i] = index >= start && index < end ? effective(heights[index]) : 0;
+			total += tree[i];
+		}
+		for (int i = 1; i < tree.length; i++) {
+			int parent = i + (i & -i);
+			if (parent < tree.length) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.strongjoshua.console.gui;
+
+/**
+ * Ascending sequence numbers of log entries. New sequence numbers are added at
+ * the end and evicted ones are removed from the front, both in amortized
+ * constant time.
+ */
+class SequenceList {
+	private long[] items = new long[16];
+	private int start;
+	private int end;
+
+	public int size() {
+		return end - start;
+	}
+
+	public long get(int index) {
+		return items[start + index];
+	}
+
+	public long last() {
+		return items[end - 1];
+	}
+
+	/**
+	 * @param sequence Must be greater than the last sequence number.
+	 */
+	public void add(long sequence) {
+		if (end == items.length) {
+			int size = size();
+			long[] newItems = size * 2 > items.length ? new long[items.length * 2] : items;
+			System.arraycopy(items, start, newItems, 0, size);
+			items = newItems;
+			start = 0;
+			end = size;
+		}
+		items[end++] = sequence;
+	}
+
+	/**
+	 * Removes all sequence numbers before the given one.
+	 *
+	 * @return Number of removed sequence numbers.
+	 */
+	public int removeBefore(long sequence) {
+		int index = indexOf(sequence);
+		int removed = index >= 0 ? index : -index - 1;
+		start += removed;
+		return removed;
+	}
+
+	public void clear() {
+		start = 0;
+		end = 0;
+	}
+
+	/**
+	 * @return Index of the sequence number, or <code>-(insertion point) - 1</code>
+	 *         if it is not in the list.
+	 */
+	public int indexOf(long sequence) {
+		int low = start, high = end - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long value = items[mid];
+			if (value < sequence) {
+				low = mid + 1;
+			} else if (value > sequence) {
+				high = mid - 1;
+			} else {
+				return mid - start;
+			}
+		}
+		return -(low - start) - 1;
+	}
+}
@@ -0,0 +1,277 @@
+
+package com.strongjoshua.console.log;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.utils.Queue;
+import com.strongjoshua.console.Console;
+
+/** A {@link LogStorage} for very large logs, e.g. servers keeping {@link Console#UNLIMITED_ENTRIES}. Instead of one
+ * {@link LogEntry} and {@link String} per entry, message texts are packed as UTF-8 into large direct {@link ByteBuffer} segments
+ * outside of the Java heap, and the level, time stamps and position of each entry are kept in primitive arrays. A
+ * {@link LogEntry} is only created when an entry is read with {@link #get(int)}.
+ * <p>
+ * Segments are freed once all of their entries were evicted. Messages longer than the segment size get a segment of their own. */
+public class CompactLogStorage implements LogStorage {
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+	/** Bytes of the primitive index per entry: location, length, level, time stamps and repeat count. */
+	private static final int INDEX_BYTES = 8 + 4 + 1 + 8 + 8 + 4;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final LogLevel[] LEVELS = LogLevel.values();
+
+	private final int segmentSize;
+	private final Queue<ByteBuffer> segments = new Queue<ByteBuffer>();
+	/** Id of the first segment in {@link #segments}, ids keep counting up as segments are added. */
+	private int firstSegment;
+	/** Write position in the last segment. */
+	private int writePosition;
+	/** A freed segment kept to be reused for the next segment. */
+	private ByteBuffer spare;
+
+	// the index, a ring buffer
+	/** Segment id in the upper and position in the lower 32 bits. */
+	private long[] locations;
+	private int[] lengths;
+	private byte[] levels;
+	private long[] timeStamps;
+	private long[] lastTimeStamps;
+	private int[] repeats;
+	private int head;
+	private int size;
+	private long firstSequence;
+
+	private int numEntries = Console.UNLIMITED_ENTRIES;
+	private long retainedBytes;
+	private char[] chars = new char[256];
+
+	public CompactLogStorage () {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	/** @param segmentSize Size in bytes of the direct buffers holding the message texts. */
+	public CompactLogStorage (int segmentSize) {
+		if (segmentSize <= 0) throw new IllegalArgumentException("Segment size must be greater than 0.");
+		this.segmentSize = segmentSize;
+		allocateIndex(INITIAL_CAPACITY);
+	}
+
+	@Override
+	public int size () {
+		return size;
+	}
+
+	@Override
+	public LogEntry get (int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+		int i = wrap(head + index);
+		int length = decode(i);
+		LogEntry entry = new LogEntry(new String(chars, 0, length), LEVELS[levels[i]], timeStamps[i]);
+		entry.setRepeats(repeats[i], lastTimeStamps[i]);
+		entry.setSequence(firstSequence + index);
+		return entry;
+	}
+
+	@Override
+	public void add (String msg, LogLevel level, long timeStamp, long sequence) {
+		int length = encodedLength(msg);
+		if (segments.size == 0 || segments.last().capacity() - writePosition < length) {
+			addSegment(length);
+		}
+		encode(msg, segments.last(), writePosition);
+
+		if (size == locations.length) {
+			int capacity = locations.length * 2;
+			if (numEntries != Console.UNLIMITED_ENTRIES) {
+				capacity = Math.max(size + 1, Math.min(capacity, numEntries));
+			}
+			resizeIndex(capacity);
+		}
+		int i = wrap(head + size);
+		locations[i] = ((long)(firstSegment + segments.size - 1) << 32) | writePosition;
+		lengths[i] = length;
+		levels[i] = (byte)level.ordinal();
+		timeStamps[i] = timeStamp;
+		lastTimeStamps[i] = timeStamp;
+		repeats[i] = 1;
+
+		if (size == 0) firstSequence = sequence;
+		size++;
+		writePosition += length;
+		retainedBytes += length + INDEX_BYTES;
+	}
+
+	@Override
+	public boolean repeatLast (String msg, LogLevel level, long timeStamp) {
+		if (size == 0) return false;
+		int i = wrap(head + size - 1);
+		if (levels[i] != level.ordinal()) return false;
+
+		int length = decode(i);
+		if (length != msg.length()) return false;
+		for (int c = 0; c < length; c++) {
+			if (chars[c] != msg.charAt(c)) return false;
+		}
+		repeats[i]++;
+		lastTimeStamps[i] = timeStamp;
+		return true;
+	}
+
+	@Override
+	public void removeFirst () {
+		if (size == 0) throw new IllegalStateException("Storage is empty.");
+		retainedBytes -= lengths[head] + INDEX_BYTES;
+		head = wrap(head + 1);
+		size--;
+		firstSequence++;
+
+		// free the segments no entry points into anymore, always keeping the one being written to
+		int keepFrom = size > 0 ? (int)(locations[head] >>> 32) : firstSegment + segments.size - 1;
+		while (firstSegment < keepFrom) {
+			release(segments.removeFirst());
+			firstSegment++;
+		}
+	}
+
+	@Override
+	public void clear () {
+		while (segments.size > 0) {
+			release(segments.removeFirst());
+			firstSegment++;
+		}
+		writePosition = 0;
+		head = 0;
+		size = 0;
+		retainedBytes = 0;
+	}
+
+	@Override
+	public long getRetainedBytes () {
+		return retainedBytes;
+	}
+
+	@Override
+	public void setMaxEntries (int numEntries) {
+		this.numEntries = numEntries;
+		if (numEntries != Console.UNLIMITED_ENTRIES && locations.length > numEntries) {
+			resizeIndex(Math.max(1, Math.max(size, numEntries)));
+		}
+	}
+
+	private void addSegment (int length) {
+		ByteBuffer segment;
+		if (spare != null && spare.capacity() >= length) {
+			segment = spare;
+			spare = null;
+		} else {
+			segment = ByteBuffer.allocateDirect(Math.max(segmentSize, length));
+		}
+		segments.addLast(segment);
+		writePosition = 0;
+	}
+
+	private void release (ByteBuffer segment) {
+		if (spare == null && segment.capacity() == segmentSize) spare = segment;
+	}
+
+	/** Decodes the text of the entry at the given index of the index arrays into {@link #chars}.
+	 *
+	 * @return The number of decoded chars. */
+	private int decode (int i) {
+		long location = locations[i];
+		ByteBuffer segment = segments.get((int)(location >>> 32) - firstSegment);
+		int position = (int)location;
+		int end = position + lengths[i];
+		if (chars.length < lengths[i]) chars = new char[Math.max(lengths[i], chars.length * 2)];
+
+		int count = 0;
+		while (position < end) {
+			int b = segment.get(position++);
+			if (b >= 0) {
+				chars[count++] = (char)b;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[count++] = (char)(((b & 0x1F) << 6) | (segment.get(position++) & 0x3F));
+			} else if ((b & 0xF0) == 0xE0) {
+				chars[count++] = (char)(((b & 0x0F) << 12) | ((segment.get(position++) & 0x3F) << 6)
+					| (segment.get(position++) & 0x3F));
+			} else {
+				int codePoint = ((b & 0x07) << 18) | ((segment.get(position++) & 0x3F) << 12)
+					| ((segment.get(position++) & 0x3F) << 6) | (segment.get(position++) & 0x3F);
+				chars[count++] = Character.highSurrogate(codePoint);
+				chars[count++] = Character.lowSurrogate(codePoint);
+			}
+		}
+		return count;
+	}
+
+	private static int encodedLength (String msg) {
+		int length = 0;
+		for (int i = 0, n = msg.length(); i < n; i++) {
+			char c = msg.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(msg.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private static void encode (String msg, ByteBuffer segment, int position) {
+		for (int i = 0, n = msg.length(); i < n; i++) {
+			char c = msg.charAt(i);
+			if (c < 0x80) {
+				segment.put(position++, (byte)c);
+			} else if (c < 0x800) {
+				segment.put(position++, (byte)(0xC0 | (c >> 6)));
+				segment.put(position++, (byte)(0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(msg.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, msg.charAt(++i));
+				segment.put(position++, (byte)(0xF0 | (codePoint >> 18)));
+				segment.put(position++, (byte)(0x80 | ((codePoint >> 12) & 0x3F)));
+				segment.put(position++, (byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+				segment.put(position++, (byte)(0x80 | (codePoint & 0x3F)));
+			} else {
+				segment.put(position++, (byte)(0xE0 | (c >> 12)));
+				segment.put(position++, (byte)(0x80 | ((c >> 6) & 0x3F)));
+				segment.put(position++, (byte)(0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	private void allocateIndex (int capacity) {
+		locations = new long[capacity];
+		lengths = new int[capacity];
+		levels = new byte[capacity];
+		timeStamps = new long[capacity];
+		lastTimeStamps = new long[capacity];
+		repeats = new int[capacity];
+	}
+
+	private void resizeIndex (int capacity) {
+		long[] oldLocations = locations, oldTimeStamps = timeStamps, oldLastTimeStamps = lastTimeStamps;
+		int[] oldLengths = lengths, oldRepeats = repeats;
+		byte[] oldLevels = levels;
+		int oldCapacity = locations.length;
+		allocateIndex(capacity);
+		for (int i = 0; i < size; i++) {
+			int from = head + i;
+			if (from >= oldCapacity) from -= oldCapacity;
+			locations[i] = oldLocations[from];
+			lengths[i] = oldLengths[from];
+			levels[i] = oldLevels[from];
+			timeStamps[i] = oldTimeStamps[from];
+			lastTimeStamps[i] = oldLastTimeStamps[from];
+			repeats[i] = oldRepeats[from];
+		}
+		head = 0;
+	}
+
+	private int wrap (int index) {
+		return index >= locations.length ? index - locations.length : index;
+	}
+}
@@ -18,56 +18,382 @@ import java.io.Writer;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.strongjoshua.console.Console;
 
+/** Stores the console's log entries. Entries are read with {@link #size()} and {@link #get(int)}, where index 0 is the oldest
+ * entry. Once the maximum number of entries is reached the oldest entry is evicted, which takes constant time regardless of the
+ * cap.
+ * <p>
+ * The entries are kept by a {@link LogStorage}, by default an {@link ObjectLogStorage}. Long running applications keeping
+ * {@link Console#UNLIMITED_ENTRIES} can switch to a {@link CompactLogStorage} with {@link #setStorage(LogStorage)}.
+ * <p>
+ * Every entry gets a sequence number, counting up from 0 for the first entry ever added. Unlike an index, the sequence number of
+ * an entry does not change when older entries are evicted, see {@link #getBySequence(long)}.
+ * <p>
+ * If {@link #setPooled(boolean) pooling} is enabled, evicted and cleared entries are reset and reused for new entries. Holders of
+ * an entry must then remember its {@link LogEntry#getSequence() sequence number} and compare it before using the entry
+ * again, because a recycled entry gets a new sequence number.
+ * <p>
+ * If {@link #setCollapseRepeats(boolean) collapsing} is enabled, a message logged again right after itself with the same level
+ * does not add a new entry but increments the {@link LogEntry#getRepeatCount() repeat count} of the newest entry.
+ * <p>
+ * Besides the number of entries, the log can be bounded by the approximate number of bytes its entries retain, see
+ * {@link #setMaxBytes(long)}. Whichever limit is reached first evicts the oldest entries.
+ * <p>
+ * Entries containing a text are found with {@link #find(String, LongArray)}. Enabling the {@link LogSearchIndex} with
+ * {@link #setSearchIndexed(boolean)} makes this fast on large logs, at the cost of memory for the index.
+ * <p>
+ * A log is not thread-safe. Other threads can read an immutable {@link #snapshot()} of it instead. */
 public class Log {
-	private Array<LogEntry> logEntries;
+	/** Use to not limit the number of bytes retained by the log. */
+	public static final long UNLIMITED_BYTES = -1;
+	private static final int EXPORT_CHUNK_SIZE = 8192;
+
+	private LogStorage storage;
+	/** Sequence number of the next entry. */
+	private long nextSequence;
+	/** Sequence number of the first entry not written by the last export. */
+	private long exportedSequence;
+	private boolean collapseRepeats;
+	private long maxBytes = UNLIMITED_BYTES;
+	private LogSearchIndex searchIndex;
+	private final LongArray candidates = new LongArray();
+	/** Counts up with every change of the entries. */
+	private long version;
+	private LogSnapshot snapshot = LogSnapshot.EMPTY;
+	/** Copies of the entries for the snapshots, in chunks of {@link LogSnapshot#CHUNK_SIZE} entries. */
+	private LogEntry[][] frozenChunks = new LogEntry[0][];
+	private long frozenChunkBase;
+	/** Sequence number of the first entry that was not copied for a snapshot yet. */
+	private long frozenSequence;
 
 	public Log () {
-		logEntries = new Array<LogEntry>();
+		this(new ObjectLogStorage());
+	}
+
+	public Log (LogStorage storage) {
+		this.storage = storage;
 	}
 
 	private int numEntries = Console.UNLIMITED_ENTRIES;
 
 	public void setMaxEntries (int numEntries) {
 		this.numEntries = numEntries;
+		if (numEntries != Console.UNLIMITED_ENTRIES) {
+			while (storage.size() > numEntries) {
+				storage.removeFirst();
+			}
+		}
+		storage.setMaxEntries(numEntries);
+		if (searchIndex != null) searchIndex.evict(getFirstSequence());
+		version++;
+	}
+
+	/** @param maxBytes Approximate number of bytes the entries may retain, or {@link #UNLIMITED_BYTES}. The newest entry is always
+	 *           kept, even if it exceeds the limit on its own. */
+	public void setMaxBytes (long maxBytes) {
+		this.maxBytes = maxBytes;
+		trimToMaxBytes();
+		if (searchIndex != null) searchIndex.evict(getFirstSequence());
+		version++;
+	}
+
+	public long getMaxBytes () {
+		return maxBytes;
+	}
+
+	/** @return Approximate number of bytes retained by the stored entries. */
+	public long getRetainedBytes () {
+		return storage.getRetainedBytes();
 	}
 
 	public void addEntry (String msg, LogLevel level) {
-		logEntries.add(new LogEntry(msg, level));
-		if (logEntries.size > numEntries && numEntries != Console.UNLIMITED_ENTRIES) {
-			logEntries.removeIndex(0);
+		addEntry(msg, level, TimeUtils.millis());
+	}
+
+	/** @param msg The message, null is stored as <code>"null"</code> like {@link String#valueOf(Object)} would.
+	 * @param timeStamp Time the message was logged at, in milliseconds. */
+	public void addEntry (String msg, LogLevel level, long timeStamp) {
+		// storages, the search index and the byte accounting all read the text
+		if (msg == null) msg = "null";
+		version++;
+		if (collapseRepeats && storage.repeatLast(msg, level, timeStamp)) {
+			return;
+		}
+		if (numEntries != Console.UNLIMITED_ENTRIES && storage.size() >= numEntries && storage.size() > 0) {
+			storage.removeFirst();
+		}
+		storage.add(msg, level, timeStamp, nextSequence);
+		if (searchIndex != null) searchIndex.add(nextSequence, msg);
+		nextSequence++;
+		trimToMaxBytes();
+		if (searchIndex != null) searchIndex.evict(getFirstSequence());
+	}
+
+	/** @return The number of entries currently stored. */
+	public int size () {
+		return storage.size();
+	}
+
+	/** @param index Index of the entry, 0 being the oldest entry.
+	 * @return The entry at the given index. */
+	public LogEntry get (int index) {
+		return storage.get(index);
+	}
+
+	/** @return Sequence number of the oldest entry. If the log is empty, this is the sequence number the next entry will get. */
+	public long getFirstSequence () {
+		return nextSequence - storage.size();
+	}
+
+	/** @return Sequence number the next entry will get. */
+	public long getNextSequence () {
+		return nextSequence;
+	}
+
+	/** @return The entry with the given sequence number, or null if it was evicted or does not exist yet. */
+	public LogEntry getBySequence (long sequence) {
+		long index = sequence - getFirstSequence();
+		if (index < 0 || index >= storage.size()) return null;
+		return storage.get((int)index);
+	}
+
+	/** Removes all entries. */
+	public void clear () {
+		storage.clear();
+		if (searchIndex != null) searchIndex.clear(nextSequence);
+		version++;
+	}
+
+	/** @return A number that changes whenever entries are added, repeated, evicted or cleared. */
+	public long getVersion () {
+		return version;
+	}
+
+	/** Takes an immutable snapshot of the current entries, which may be read by other threads. As long as the log does not change,
+	 * the same snapshot is returned. Otherwise only the entries added since the last snapshot are copied, the copies of the older
+	 * entries are shared with the previous snapshots.
+	 * <p>
+	 * Like all other methods of the log, this must be called by the thread that writes to the log. */
+	public LogSnapshot snapshot () {
+		if (snapshot.getVersion() == version) return snapshot;
+		long first = getFirstSequence();
+		// entries evicted before they were copied are skipped
+		long from = Math.max(frozenSequence, first);
+		if (from > first && from == frozenSequence && storage.get((int)(from - 1 - first)).getRepeatCount() != frozen(from - 1)
+			.getRepeatCount()) {
+			// the newest entry of the previous snapshot was repeated since, older snapshots keep their own copy of it
+			from--;
+		}
+		for (long sequence = from; sequence < nextSequence; sequence++) {
+			freeze(sequence, storage.get((int)(sequence - first)));
+		}
+		frozenSequence = nextSequence;
+		LogEntry newest = nextSequence > first ? frozen(nextSequence - 1) : null;
+		snapshot = new LogSnapshot(version, first, nextSequence, frozenChunks, frozenChunkBase, newest);
+		return snapshot;
+	}
+
+	private LogEntry frozen (long sequence) {
+		return frozenChunks[(int)((sequence >> LogSnapshot.CHUNK_SHIFT) - frozenChunkBase)][(int)sequence & LogSnapshot.CHUNK_MASK];
+	}
+
+	/** Stores a copy of the entry in the chunks shared by the snapshots. Snapshots only read the copies of their own window, so
+	 * writing a copy of a newer entry does not change them. */
+	private void freeze (long sequence, LogEntry entry) {
+		long chunk = sequence >> LogSnapshot.CHUNK_SHIFT;
+		if (chunk - frozenChunkBase >= frozenChunks.length) {
+			// a new directory without the chunks of evicted entries, older snapshots keep the old one
+			long base = getFirstSequence() >> LogSnapshot.CHUNK_SHIFT;
+			LogEntry[][] chunks = new LogEntry[(int)Math.max(4, (chunk - base + 1) * 2)][];
+			for (long c = Math.max(base, frozenChunkBase); c < frozenChunkBase + frozenChunks.length; c++) {
+				chunks[(int)(c - base)] = frozenChunks[(int)(c - frozenChunkBase)];
+			}
+			frozenChunks = chunks;
+			frozenChunkBase = base;
+		}
+		int index = (int)(chunk - frozenChunkBase);
+		if (frozenChunks[index] == null) frozenChunks[index] = new LogEntry[LogSnapshot.CHUNK_SIZE];
+		frozenChunks[index][(int)sequence & LogSnapshot.CHUNK_MASK] = new LogSnapshot.FrozenEntry(entry, sequence);
+	}
+
+	/** @param indexed If a {@link LogSearchIndex} should be kept to speed up {@link #find(String, LongArray)}. When enabled, the
+	 *           index is built from the current entries. */
+	public void setSearchIndexed (boolean indexed) {
+		if (!indexed) {
+			searchIndex = null;
+		} else if (searchIndex == null) {
+			searchIndex = new LogSearchIndex();
+			long sequence = getFirstSequence();
+			searchIndex.clear(sequence);
+			for (int i = 0, n = storage.size(); i < n; i++) {
+				searchIndex.add(sequence + i, storage.get(i).getText());
+			}
+		}
+	}
+
+	public boolean isSearchIndexed () {
+		return searchIndex != null;
+	}
+
+	/** Finds all entries whose message contains the query, ignoring case.
+	 *
+	 * @param out Receives the sequence numbers of the matching entries, oldest first.
+	 * @return The number of matching entries. */
+	public int find (String query, LongArray out) {
+		int count = out.size;
+		long first = getFirstSequence();
+		candidates.clear();
+		if (searchIndex != null && searchIndex.findCandidates(query, candidates)) {
+			for (int i = 0; i < candidates.size; i++) {
+				long sequence = candidates.get(i);
+				if (contains(storage.get((int)(sequence - first)).getText(), query)) out.add(sequence);
+			}
+			candidates.clear();
+		} else {
+			for (int i = 0, n = storage.size(); i < n; i++) {
+				if (contains(storage.get(i).getText(), query)) out.add(first + i);
+			}
+		}
+		return out.size - count;
+	}
+
+	private static boolean contains (String text, String query) {
+		for (int i = 0, n = text.length() - query.length(); i <= n; i++) {
+			if (text.regionMatches(true, i, query, 0, query.length())) return true;
 		}
+		return false;
+	}
+
+	/** Replaces the storage of this log. The current entries are moved to the new storage.
+	 *
+	 * @param storage An empty storage. */
+	public void setStorage (LogStorage storage) {
+		if (storage.size() > 0) throw new IllegalArgumentException("Storage must be empty.");
+		storage.setMaxEntries(numEntries);
+		storage.setPooled(this.storage.isPooled());
+		long sequence = getFirstSequence();
+		for (int i = 0; i < this.storage.size(); i++) {
+			LogEntry entry = this.storage.get(i);
+			storage.add(entry.getText(), entry.getLevel(), entry.getTimeStamp(), sequence++);
+			for (int r = 1; r < entry.getRepeatCount(); r++) {
+				storage.repeatLast(entry.getText(), entry.getLevel(), entry.getLastTimeStamp());
+			}
+		}
+		this.storage.clear();
+		this.storage = storage;
+		version++;
+	}
+
+	public LogStorage getStorage () {
+		return storage;
 	}
 
+	/** @param pooled If evicted and cleared entries should be reused for new entries, so that logging does not allocate entries
+	 *           once the log is full. Only supported by storages that keep entry objects. */
+	public void setPooled (boolean pooled) {
+		storage.setPooled(pooled);
+	}
+
+	public boolean isPooled () {
+		return storage.isPooled();
+	}
+
+	/** @param collapseRepeats If consecutive entries with the same message and level should be collapsed into one entry with a
+	 *           repeat count. Entries already exported with {@link #printToFile(FileHandle, boolean)} in append mode are not
+	 *           exported again when they are repeated afterwards. */
+	public void setCollapseRepeats (boolean collapseRepeats) {
+		this.collapseRepeats = collapseRepeats;
+	}
+
+	public boolean isCollapseRepeats () {
+		return collapseRepeats;
+	}
+
+	/** Copies the stored entries into a new array on every call. Earlier versions returned the log's own array, which changed as
+	 * entries were added; the copy does not, and adding to or removing from it does not affect the log. Depending on the
+	 * {@link LogStorage}, the entries are copies as well, e.g. those decoded by {@link CompactLogStorage}.
+	 *
+	 * @return A new array holding the stored entries, oldest first.
+	 * @deprecated Use {@link #size()} and {@link #get(int)} instead, which do not copy the entries. */
+	@Deprecated
 	public Array<LogEntry> getLogEntries () {
-		return logEntries;
+		int size = storage.size();
+		Array<LogEntry> entries = new Array<LogEntry>(size);
+		for (int i = 0; i < size; i++) {
+			entries.add(storage.get(i));
+		}
+		return entries;
 	}
 
+	private void trimToMaxBytes () {
+		if (maxBytes == UNLIMITED_BYTES) return;
+		while (storage.getRetainedBytes() > maxBytes && storage.size() > 1) {
+			storage.removeFirst();
+		}
+	}
+
+	/** Writes all entries to the given file, overwriting it.
+	 *
+	 * @return True if the file was written successfully.
+	 * @see #printToFile(FileHandle, boolean) */
 	public boolean printToFile (FileHandle fh) {
+		return printToFile(fh, false);
+	}
+
+	/** Writes entries to the given file. The entries are streamed through a fixed size buffer, so exporting does not build the
+	 * whole file in memory.
+	 *
+	 * @param append If true, only the entries added since the last export are appended to the file. Otherwise all entries are
+	 *           written and the file is overwritten.
+	 * @return True if the file was written successfully. */
+	public boolean printToFile (FileHandle fh, boolean append) {
 		if (fh.isDirectory()) {
 			throw new IllegalArgumentException("File cannot be a directory!");
 		}
 
 		Writer out = null;
 		try {
-			out = fh.writer(false);
+			out = fh.writer(append);
 		} catch (Exception e) {
 			return false;
 		}
 
-		String toWrite = "";
-		for (LogEntry l : logEntries) {
-			toWrite += l.toString() + "\n";
-		}
-
+		int size = storage.size();
+		int start = append ? (int)Math.max(0, Math.min(size, exportedSequence - getFirstSequence())) : 0;
+		StringBuilder sb = new StringBuilder(EXPORT_CHUNK_SIZE + 256);
+		char[] chunk = new char[EXPORT_CHUNK_SIZE];
 		try {
-			out.write(toWrite);
-			out.close();
+			for (int i = start; i < size; i++) {
+				storage.get(i).appendTo(sb).append('\n');
+				if (sb.length() >= EXPORT_CHUNK_SIZE) {
+					write(out, sb, chunk);
+				}
+			}
+			write(out, sb, chunk);
+			exportedSequence = nextSequence;
 			return true;
 		} catch (IOException e) {
 			e.printStackTrace();
 			return false;
+		} finally {
+			try {
+				out.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/** Writes the builder's content to the writer through the given buffer and empties the builder. */
+	private static void write (Writer out, StringBuilder sb, char[] chunk) throws IOException {
+		int length = sb.length();
+		for (int offset = 0; offset < length; offset += chunk.length) {
+			int count = Math.min(chunk.length, length - offset);
+			sb.getChars(offset, offset + count, chunk, 0);
+			out.write(chunk, 0, count);
 		}
+		sb.setLength(0);
 	}
 }
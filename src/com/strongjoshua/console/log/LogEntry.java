@@ -14,17 +14,97 @@
 package com.strongjoshua.console.log;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.TimeUtils;
 
-public class LogEntry {
+public class LogEntry implements Poolable {
 	private String text;
 	private LogLevel level;
 	private long timeStamp;
+	private long lastTimeStamp;
+	private int repeatCount = 1;
+	private long sequence = -1;
+
+	/** Creates an empty entry to be filled by a pooled {@link Log}. */
+	protected LogEntry() {
+		this.level = LogLevel.DEFAULT;
+	}
 
 	protected LogEntry(String msg, LogLevel level) {
+		this(msg, level, TimeUtils.millis());
+	}
+
+	protected LogEntry(String msg, LogLevel level, long timeStamp) {
+		set(msg, level, timeStamp);
+	}
+
+	void set(String msg, LogLevel level, long timeStamp) {
 		this.text = msg;
 		this.level = level;
-		timeStamp = TimeUtils.millis();
+		this.timeStamp = timeStamp;
+		this.lastTimeStamp = timeStamp;
+		this.repeatCount = 1;
+	}
+
+	/** Counts another occurrence of this entry's message, see {@link Log#setCollapseRepeats(boolean)}. */
+	void repeat(long timeStamp) {
+		repeatCount++;
+		lastTimeStamp = timeStamp;
+	}
+
+	void setRepeats(int repeatCount, long lastTimeStamp) {
+		this.repeatCount = repeatCount;
+		this.lastTimeStamp = lastTimeStamp;
+	}
+
+	boolean isRepeatOf(String msg, LogLevel level) {
+		return this.level == level && (text == null ? msg == null : text.equals(msg));
+	}
+
+	void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	/**
+	 * @return The sequence number assigned by the {@link Log}, or -1 if this entry
+	 *         was recycled and is not part of a log.
+	 * @see Log#getBySequence(long)
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	@Override
+	public void reset() {
+		text = null;
+		level = LogLevel.DEFAULT;
+		timeStamp = 0;
+		lastTimeStamp = 0;
+		repeatCount = 1;
+		sequence = -1;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public LogLevel getLevel() {
+		return level;
+	}
+
+	/** @return Time this entry was first logged at, in milliseconds. */
+	public long getTimeStamp() {
+		return timeStamp;
+	}
+
+	/** @return Time this entry was last repeated at, in milliseconds. */
+	public long getLastTimeStamp() {
+		return lastTimeStamp;
+	}
+
+	/** @return How often this entry's message was logged in a row, 1 unless repeats are collapsed. */
+	public int getRepeatCount() {
+		return repeatCount;
 	}
 
 	public Color getColor() {
@@ -36,11 +116,32 @@ public class LogEntry {
 			sb.append(level.getIdentifier());
 		}
 		sb.append(text);
+		appendRepeatCount(sb);
 		return sb;
 	}
 
+	/**
+	 * Appends this entry the way it is written to log files. Repeated entries are
+	 * written with the time of their first and last occurrence.
+	 */
+	public StringBuilder appendTo(StringBuilder sb) {
+		sb.append(timeStamp);
+		if (repeatCount > 1) {
+			sb.append('-').append(lastTimeStamp);
+		}
+		sb.append(": ").append(level.getIdentifier()).append(text);
+		appendRepeatCount(sb);
+		return sb;
+	}
+
+	private void appendRepeatCount(StringBuilder sb) {
+		if (repeatCount > 1) {
+			sb.append(" (x").append(repeatCount).append(')');
+		}
+	}
+
 	@Override
 	public String toString() {
-		return timeStamp + ": " + level.getIdentifier() + text;
+		return appendTo(new StringBuilder()).toString();
 	}
 }
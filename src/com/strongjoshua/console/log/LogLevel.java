@@ -11,27 +11,36 @@ import com.strongjoshua.console.Console;
 public enum LogLevel {
 	/** The default log level. Prints in white to the console and has no special indicator in the log file.<br>
 	 * Intentional Use: debugging. */
-	DEFAULT(new Color(1, 1, 1, 1), ""), /** Use to print errors. Prints in red to the console and has the '<i>ERROR</i>' marking in
+	DEFAULT(new Color(1, 1, 1, 1), "", 0), /** Use to print errors. Prints in red to the console and has the '<i>ERROR</i>' marking in
 	 * the log file.<br>
 	 * Intentional Use: printing internal console errors; debugging. */
-	ERROR(new Color(217f / 255f, 0, 0, 1), "Error: "), /** Prints in green. Use to print success notifications of events. Intentional
+	ERROR(new Color(217f / 255f, 0, 0, 1), "Error: ", 2), /** Prints in green. Use to print success notifications of events. Intentional
 	 * Use: Print successful execution of console commands (if needed). */
-	SUCCESS(new Color(0, 217f / 255f, 0, 1), "Success! "), /** Prints in white with {@literal "> "} prepended to the command. Has
+	SUCCESS(new Color(0, 217f / 255f, 0, 1), "Success! ", 1), /** Prints in white with {@literal "> "} prepended to the command. Has
 	 * that prepended text as the indicator in the log file. Intentional Use: To be used by the console, alone. */
-	COMMAND(new Color(1, 1, 1, 1), "> ");
+	COMMAND(new Color(1, 1, 1, 1), "> ", 3);
 
 	private Color color;
 	private String identifier;
+	private int priority;
 
-	LogLevel (Color c, String identity) {
+	LogLevel (Color c, String identity, int priority) {
 		this.color = c;
 		identifier = identity;
+		this.priority = priority;
 	}
 
 	public Color getColor () {
 		return color;
 	}
 
+	/** @return The level's importance, from {@link #DEFAULT} (lowest) over {@link #SUCCESS} and {@link #ERROR} to
+	 *         {@link #COMMAND} (highest).
+	 * @see Console#setMinLogLevel(LogLevel) */
+	public int getPriority () {
+		return priority;
+	}
+
 	String getIdentifier () {
 		return identifier;
 	}
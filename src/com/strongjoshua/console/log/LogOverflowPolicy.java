@@ -0,0 +1,14 @@
+
+package com.strongjoshua.console.log;
+
+/** Decides what happens when a message is logged to a full {@link LogQueue}.
+ *
+ * @see LogQueue#getDroppedCount() */
+public enum LogOverflowPolicy {
+	/** Discards the oldest queued message to make room for the new one. */
+	DROP_OLDEST,
+	/** Discards the new message. */
+	DROP_NEWEST,
+	/** Waits until the consumer made room for the new message. */
+	BLOCK
+}
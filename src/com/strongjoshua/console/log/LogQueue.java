@@ -0,0 +1,168 @@
+
+package com.strongjoshua.console.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/** A bounded, lock-free queue of pending log messages. Any number of threads can {@link #offer(String, LogLevel, long)} messages
+ * without blocking each other, while a single consumer moves them into a {@link Log} in one batch with {@link #drain(Log)}. The
+ * slots are allocated up front and reused, so queuing a message does not allocate.
+ * <p>
+ * What happens when the queue is full is decided by the {@link LogOverflowPolicy}. Every discarded message is counted, see
+ * {@link #getDroppedCount()}. */
+public class LogQueue {
+	private static final class Slot {
+		String msg;
+		LogLevel level;
+		long timeStamp;
+	}
+
+	private final Slot[] slots;
+	/** Per slot sequence numbers telling producers and consumers whose turn it is to use the slot. */
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile LogOverflowPolicy policy;
+
+	/** @param capacity Maximum number of queued messages, rounded up to the next power of two.
+	 * @param policy What to do when the queue is full. */
+	public LogQueue (int capacity, LogOverflowPolicy policy) {
+		if (capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0.");
+		if (policy == null) throw new IllegalArgumentException("Overflow policy cannot be null.");
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) size <<= 1;
+
+		slots = new Slot[size];
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			slots[i] = new Slot();
+			sequences.set(i, i);
+		}
+		mask = size - 1;
+		this.policy = policy;
+	}
+
+	/** Queues a message. Never blocks unless the policy is {@link LogOverflowPolicy#BLOCK} and the queue is full.
+	 *
+	 * @return False if the message was discarded. */
+	public boolean offer (String msg, LogLevel level, long timeStamp) {
+		while (true) {
+			if (tryOffer(msg, level, timeStamp)) return true;
+
+			switch (policy) {
+			case DROP_NEWEST:
+				dropped.incrementAndGet();
+				return false;
+			case DROP_OLDEST:
+				if (poll(null, null)) dropped.incrementAndGet();
+				break;
+			case BLOCK:
+				LockSupport.parkNanos(100000L);
+				break;
+			}
+		}
+	}
+
+	/** Moves all queued messages into the given log, oldest first. Only one thread may drain a queue at a time.
+	 *
+	 * @return The number of messages that were added to the log. */
+	public int drain (Log log) {
+		int count = 0;
+		while (poll(log, null)) {
+			count++;
+		}
+		return count;
+	}
+
+	/** Writes all queued messages to the given sink, oldest first. Only one thread may drain a queue at a time.
+	 *
+	 * @return The number of messages that were written. */
+	public int drain (LogSink sink) {
+		int count = 0;
+		while (poll(null, sink)) {
+			count++;
+		}
+		return count;
+	}
+
+	/** Discards all queued messages without counting them as dropped. */
+	public void clear () {
+		while (poll(null, null)) {
+		}
+	}
+
+	private boolean tryOffer (String msg, LogLevel level, long timeStamp) {
+		while (true) {
+			long pos = tail.get();
+			int index = (int)pos & mask;
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					Slot slot = slots[index];
+					slot.msg = msg;
+					slot.level = level;
+					slot.timeStamp = timeStamp;
+					sequences.lazySet(index, pos + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				// full
+				return false;
+			}
+		}
+	}
+
+	/** Removes the oldest message and adds it to the given log or sink, or discards it if both are null.
+	 *
+	 * @return False if the queue was empty. */
+	private boolean poll (Log log, LogSink sink) {
+		while (true) {
+			long pos = head.get();
+			int index = (int)pos & mask;
+			long diff = sequences.get(index) - (pos + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					Slot slot = slots[index];
+					String msg = slot.msg;
+					LogLevel level = slot.level;
+					long timeStamp = slot.timeStamp;
+					slot.msg = null;
+					sequences.lazySet(index, pos + mask + 1);
+					if (log != null) log.addEntry(msg, level, timeStamp);
+					if (sink != null) sink.write(msg, level, timeStamp);
+					return true;
+				}
+			} else if (diff < 0) {
+				// empty
+				return false;
+			}
+		}
+	}
+
+	/** @return Approximate number of queued messages. */
+	public int size () {
+		long size = tail.get() - head.get();
+		return (int)Math.max(0, Math.min(size, slots.length));
+	}
+
+	public int getCapacity () {
+		return slots.length;
+	}
+
+	/** @return Number of messages discarded because the queue was full. */
+	public long getDroppedCount () {
+		return dropped.get();
+	}
+
+	public LogOverflowPolicy getOverflowPolicy () {
+		return policy;
+	}
+
+	public void setOverflowPolicy (LogOverflowPolicy policy) {
+		if (policy == null) throw new IllegalArgumentException("Overflow policy cannot be null.");
+		this.policy = policy;
+	}
+}
@@ -0,0 +1,155 @@
+
+package com.strongjoshua.console.log;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/** A case-insensitive trigram index over the entries of a {@link Log}. For every three consecutive characters of a message, the
+ * index keeps the ascending sequence numbers of the entries containing them. A query only looks at the entries containing all of
+ * its trigrams instead of scanning the whole log.
+ * <p>
+ * The index is updated when entries are added. Evicted entries are dropped from the index in batches, once as many entries were
+ * evicted as are left in the log, which keeps the cost per eviction constant.
+ *
+ * @see Log#setSearchIndexed(boolean) */
+public class LogSearchIndex {
+	/** Ascending sequence numbers, with evicted ones trimmed from the front. */
+	private static class Postings {
+		long[] items = new long[4];
+		int start;
+		int end;
+
+		void add (long sequence) {
+			if (end > start && items[end - 1] == sequence) return;
+			if (end == items.length) {
+				if (start > items.length / 2) {
+					System.arraycopy(items, start, items, 0, end - start);
+				} else {
+					long[] newItems = new long[items.length * 2];
+					System.arraycopy(items, start, newItems, 0, end - start);
+					items = newItems;
+				}
+				end -= start;
+				start = 0;
+			}
+			items[end++] = sequence;
+		}
+
+		void trim (long firstSequence) {
+			while (start < end && items[start] < firstSequence) {
+				start++;
+			}
+		}
+
+		int size () {
+			return end - start;
+		}
+
+		boolean contains (long sequence) {
+			int low = start, high = end - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long value = items[mid];
+				if (value < sequence) {
+					low = mid + 1;
+				} else if (value > sequence) {
+					high = mid - 1;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private final LongMap<Postings> postings = new LongMap<Postings>();
+	private final Array<Postings> queryPostings = new Array<Postings>();
+	private long firstSequence;
+	private int evicted;
+	private int indexed;
+
+	/** Adds the trigrams of an entry's message. Entries must be added in ascending sequence order. */
+	public void add (long sequence, String msg) {
+		for (int i = 0, n = msg.length() - 2; i < n; i++) {
+			long trigram = trigram(msg, i);
+			Postings list = postings.get(trigram);
+			if (list == null) {
+				list = new Postings();
+				postings.put(trigram, list);
+			}
+			list.add(sequence);
+		}
+		indexed++;
+	}
+
+	/** Tells the index that all entries before the given sequence number were evicted. */
+	public void evict (long firstSequence) {
+		if (firstSequence <= this.firstSequence) return;
+		int count = (int)Math.min(Integer.MAX_VALUE, firstSequence - this.firstSequence);
+		this.firstSequence = firstSequence;
+		evicted += count;
+		indexed -= count;
+		if (evicted > indexed) {
+			compact();
+		}
+	}
+
+	/** Removes everything from the index.
+	 *
+	 * @param nextSequence Sequence number of the next entry that will be added. */
+	public void clear (long nextSequence) {
+		postings.clear();
+		firstSequence = nextSequence;
+		evicted = 0;
+		indexed = 0;
+	}
+
+	/** Finds the entries whose messages may contain the query. The query must be at least three characters long.
+	 *
+	 * @param out Receives the ascending sequence numbers of all entries containing every trigram of the query. The caller has to
+	 *           check if the message actually contains the query.
+	 * @return False if the query is too short to use the index. */
+	public boolean findCandidates (String query, LongArray out) {
+		int n = query.length() - 2;
+		if (n <= 0) return false;
+
+		// start with the rarest trigram
+		Postings rarest = null;
+		queryPostings.clear();
+		for (int i = 0; i < n; i++) {
+			Postings list = postings.get(trigram(query, i));
+			if (list == null) return true;
+			list.trim(firstSequence);
+			if (rarest == null || list.size() < rarest.size()) rarest = list;
+			queryPostings.add(list);
+		}
+
+		candidates:
+		for (int c = rarest.start; c < rarest.end; c++) {
+			long sequence = rarest.items[c];
+			for (int i = 0; i < queryPostings.size; i++) {
+				Postings list = queryPostings.get(i);
+				if (list != rarest && !list.contains(sequence)) continue candidates;
+			}
+			out.add(sequence);
+		}
+		queryPostings.clear();
+		return true;
+	}
+
+	private void compact () {
+		LongMap.Entries<Postings> entries = new LongMap.Entries<Postings>(postings);
+		while (entries.hasNext()) {
+			Postings list = entries.next().value;
+			list.trim(firstSequence);
+			if (list.size() == 0) entries.remove();
+		}
+		evicted = 0;
+	}
+
+	private static long trigram (String s, int index) {
+		return (long)Character.toLowerCase(s.charAt(index)) << 32 | (long)Character.toLowerCase(s.charAt(index + 1)) << 16
+			| Character.toLowerCase(s.charAt(index + 2));
+	}
+}
@@ -0,0 +1,23 @@
+
+package com.strongjoshua.console.log;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.strongjoshua.console.Console;
+
+/** Receives every message logged to a console, after all {@link LogConverter}s were applied. Sinks are called on the logging
+ * thread, so implementations should return quickly and must be thread safe.
+ *
+ * @see Console#addLogSink(LogSink) */
+public interface LogSink extends Disposable {
+	/** @param msg The converted message.
+	 * @param level The {@link LogLevel} of the message.
+	 * @param timeStamp Time the message was logged at, in milliseconds. */
+	void write (String msg, LogLevel level, long timeStamp);
+
+	/** Blocks until all messages written so far are persisted. */
+	void flush ();
+
+	/** Flushes all pending messages and releases the sink's resources. */
+	@Override
+	void dispose ();
+}
@@ -0,0 +1,88 @@
+
+package com.strongjoshua.console.log;
+
+/** An immutable copy of the entries of a {@link Log} at one {@link Log#getVersion() version}. Unlike the log itself, a snapshot
+ * can be handed to and read by any thread without locking, and it never changes while it is read. Its entries are copies that
+ * can't be {@link LogEntry#reset() reset}, and as they are only reachable through final fields, other threads see them
+ * completely even if the snapshot is passed on without synchronization.
+ * <p>
+ * Snapshots are created with {@link Log#snapshot()}. The entry copies are kept in chunks shared by all snapshots of a log, a
+ * snapshot only covers a window of sequence numbers of them. A new snapshot therefore only copies the entries added since the
+ * previous one, and the newest entry if it was repeated since.
+ *
+ * @see com.strongjoshua.console.Console#getLogSnapshot() */
+public final class LogSnapshot {
+	/** A snapshot of a log that never had any entries. */
+	public static final LogSnapshot EMPTY = new LogSnapshot(-1, 0, 0, new LogEntry[0][], 0, null);
+
+	static final int CHUNK_SHIFT = 8;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private final long version;
+	private final long firstSequence;
+	private final long nextSequence;
+	/** Chunks of entry copies, starting with the chunk of sequence numbers {@link #chunkBase} << {@link #CHUNK_SHIFT}. */
+	private final LogEntry[][] chunks;
+	private final long chunkBase;
+	/** Copy of the newest entry, the log replaces the copy in its chunk when the entry is repeated. */
+	private final LogEntry newest;
+
+	LogSnapshot (long version, long firstSequence, long nextSequence, LogEntry[][] chunks, long chunkBase, LogEntry newest) {
+		this.version = version;
+		this.firstSequence = firstSequence;
+		this.nextSequence = nextSequence;
+		this.chunks = chunks;
+		this.chunkBase = chunkBase;
+		this.newest = newest;
+	}
+
+	/** @return The {@link Log#getVersion() version} of the log this snapshot was taken at. */
+	public long getVersion () {
+		return version;
+	}
+
+	public int size () {
+		return (int)(nextSequence - firstSequence);
+	}
+
+	/** @param index Index of the entry, 0 being the oldest entry. */
+	public LogEntry get (int index) {
+		if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size());
+		return entry(firstSequence + index);
+	}
+
+	public long getFirstSequence () {
+		return firstSequence;
+	}
+
+	public long getNextSequence () {
+		return nextSequence;
+	}
+
+	/** @return The entry with the given sequence number, or null if it is not part of this snapshot. */
+	public LogEntry getBySequence (long sequence) {
+		if (sequence < firstSequence || sequence >= nextSequence) return null;
+		return entry(sequence);
+	}
+
+	private LogEntry entry (long sequence) {
+		if (sequence == nextSequence - 1) return newest;
+		return chunks[(int)((sequence >> CHUNK_SHIFT) - chunkBase)][(int)sequence & CHUNK_MASK];
+	}
+
+	/** A copy of a log entry which is never recycled. */
+	static final class FrozenEntry extends LogEntry {
+		FrozenEntry (LogEntry entry, long sequence) {
+			super(entry.getText(), entry.getLevel(), entry.getTimeStamp());
+			setRepeats(entry.getRepeatCount(), entry.getLastTimeStamp());
+			setSequence(sequence);
+		}
+
+		/** @throws UnsupportedOperationException Always, snapshot entries are immutable. */
+		@Override
+		public void reset () {
+			throw new UnsupportedOperationException("Entries of a snapshot can't be reset.");
+		}
+	}
+}
@@ -0,0 +1,48 @@
+
+package com.strongjoshua.console.log;
+
+/** Holds the entries of a {@link Log}. The log decides which entries to add and evict, the storage only keeps them in order:
+ * entries are added at the end and removed from the front, index 0 being the oldest entry.
+ *
+ * @see ObjectLogStorage
+ * @see CompactLogStorage */
+public interface LogStorage {
+	/** @return The number of stored entries. */
+	int size ();
+
+	/** @param index Index of the entry, 0 being the oldest entry.
+	 * @return The entry at the given index. Storages that do not keep {@link LogEntry} objects create a new entry on every call. */
+	LogEntry get (int index);
+
+	/** Adds an entry after the newest entry.
+	 *
+	 * @param sequence The sequence number of the entry, one more than the sequence number of the previously added entry. */
+	void add (String msg, LogLevel level, long timeStamp, long sequence);
+
+	/** Counts another occurrence of the newest entry if it has the given message and level.
+	 *
+	 * @return False if the storage is empty or the newest entry has a different message or level. */
+	boolean repeatLast (String msg, LogLevel level, long timeStamp);
+
+	/** Removes the oldest entry. */
+	void removeFirst ();
+
+	/** Removes all entries. */
+	void clear ();
+
+	/** @return Approximate number of bytes retained by the stored entries. */
+	long getRetainedBytes ();
+
+	/** Called after the log evicted the entries exceeding the new maximum. Storages may use it to bound their capacity.
+	 *
+	 * @param numEntries The maximum number of entries or {@link com.strongjoshua.console.Console#UNLIMITED_ENTRIES}. */
+	void setMaxEntries (int numEntries);
+
+	/** @param pooled If removed entries should be reused for new entries. Ignored by storages that do not keep entry objects. */
+	default void setPooled (boolean pooled) {
+	}
+
+	default boolean isPooled () {
+		return false;
+	}
+}
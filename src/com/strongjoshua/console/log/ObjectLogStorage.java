@@ -0,0 +1,138 @@
+
+package com.strongjoshua.console.log;
+
+import com.badlogic.gdx.utils.Pool;
+import com.strongjoshua.console.Console;
+
+/** The default {@link LogStorage}, keeping {@link LogEntry} objects in a ring buffer. The buffer grows up to the maximum number of
+ * entries, after that adding and evicting entries takes constant time.
+ * <p>
+ * If pooling is enabled, removed entries are reset and reused for new entries, so that logging does not allocate entries once the
+ * log is full. */
+public class ObjectLogStorage implements LogStorage {
+	/** Approximate size of an entry without its message's characters: the entry, the message string and its array. */
+	private static final int ENTRY_OVERHEAD = 48 + 24 + 16;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private LogEntry[] entries = new LogEntry[INITIAL_CAPACITY];
+	/** Index of the oldest entry in {@link #entries}. */
+	private int head;
+	private int size;
+	private int numEntries = Console.UNLIMITED_ENTRIES;
+	private long retainedBytes;
+	private Pool<LogEntry> pool;
+
+	@Override
+	public int size () {
+		return size;
+	}
+
+	@Override
+	public LogEntry get (int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+		return entries[wrap(head + index)];
+	}
+
+	@Override
+	public void add (String msg, LogLevel level, long timeStamp, long sequence) {
+		LogEntry entry;
+		if (pool != null) {
+			entry = pool.obtain();
+			entry.set(msg, level, timeStamp);
+		} else {
+			entry = new LogEntry(msg, level, timeStamp);
+		}
+		entry.setSequence(sequence);
+
+		if (size == entries.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, entries.length * 2);
+			if (numEntries != Console.UNLIMITED_ENTRIES) {
+				capacity = Math.max(size + 1, Math.min(capacity, numEntries));
+			}
+			resize(capacity);
+		}
+		entries[wrap(head + size)] = entry;
+		size++;
+		retainedBytes += sizeOf(msg);
+	}
+
+	@Override
+	public boolean repeatLast (String msg, LogLevel level, long timeStamp) {
+		if (size == 0) return false;
+		LogEntry last = entries[wrap(head + size - 1)];
+		if (!last.isRepeatOf(msg, level)) return false;
+		last.repeat(timeStamp);
+		return true;
+	}
+
+	@Override
+	public void removeFirst () {
+		LogEntry entry = entries[head];
+		entries[head] = null;
+		head = wrap(head + 1);
+		size--;
+		retainedBytes -= sizeOf(entry.getText());
+		if (pool != null) pool.free(entry);
+	}
+
+	@Override
+	public void clear () {
+		for (int i = 0; i < size; i++) {
+			int index = wrap(head + i);
+			if (pool != null) pool.free(entries[index]);
+			entries[index] = null;
+		}
+		head = 0;
+		size = 0;
+		retainedBytes = 0;
+	}
+
+	@Override
+	public long getRetainedBytes () {
+		return retainedBytes;
+	}
+
+	@Override
+	public void setMaxEntries (int numEntries) {
+		this.numEntries = numEntries;
+		if (numEntries != Console.UNLIMITED_ENTRIES && entries.length > numEntries) {
+			resize(Math.max(1, Math.max(size, numEntries)));
+		}
+	}
+
+	@Override
+	public void setPooled (boolean pooled) {
+		if (!pooled) {
+			pool = null;
+		} else if (pool == null) {
+			pool = new Pool<LogEntry>() {
+				@Override
+				protected LogEntry newObject () {
+					return new LogEntry();
+				}
+			};
+		}
+	}
+
+	@Override
+	public boolean isPooled () {
+		return pool != null;
+	}
+
+	private void resize (int capacity) {
+		LogEntry[] newEntries = new LogEntry[capacity];
+		for (int i = 0; i < size; i++) {
+			newEntries[i] = entries[wrap(head + i)];
+		}
+		entries = newEntries;
+		head = 0;
+	}
+
+	private int wrap (int index) {
+		return index >= entries.length ? index - entries.length : index;
+	}
+
+	private static long sizeOf (String msg) {
+		return ENTRY_OVERHEAD + 2L * msg.length();
+	}
+}
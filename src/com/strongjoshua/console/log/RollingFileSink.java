@@ -0,0 +1,301 @@
+
+package com.strongjoshua.console.log;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** A {@link LogSink} that appends every message to a file on a background thread, so logging never waits for disk I/O. Messages
+ * are queued in a {@link LogQueue} and written in batches.
+ * <p>
+ * The file is rolled over once it grows beyond {@link #setMaxFileSize(long)} bytes or was opened longer than
+ * {@link #setRollInterval(long)} milliseconds ago. The rolled segment is renamed to
+ * <code>name-&lt;timestamp&gt;.extension</code> and, if enabled, compressed with a {@link Deflater} into a file with an
+ * additional <code>.deflate</code> extension.
+ * <p>
+ * If the file can't be written at all, e.g. because its parent is not a directory, the sink {@link #isFailed() fails} and
+ * discards all messages from then on, so logging threads never wait for a writer that is gone.
+ * <p>
+ * Call {@link #dispose()} before the application exits, otherwise the messages that are still queued are lost. */
+public class RollingFileSink implements LogSink {
+	private static final int CHUNK_SIZE = 8192;
+
+	private final FileHandle file;
+	private final LogQueue queue;
+	private final Thread thread;
+	private volatile boolean running = true;
+	private volatile boolean failed;
+
+	private volatile long maxFileSize = 10 * 1024 * 1024;
+	private volatile long rollInterval = 0;
+	private volatile long flushInterval = 100;
+	private volatile boolean compress = false;
+
+	private volatile long flushRequested;
+	private volatile long flushCompleted;
+
+	// only accessed by the writer thread
+	private final StringBuilder batch = new StringBuilder(CHUNK_SIZE + 256);
+	private final char[] chunk = new char[CHUNK_SIZE];
+	private Writer out;
+	private CountingOutputStream counter;
+	private long openedAt;
+
+	/** Creates the sink with a queue holding up to 8192 messages that discards the oldest message when full. */
+	public RollingFileSink (FileHandle file) {
+		this(file, 8192, LogOverflowPolicy.DROP_OLDEST);
+	}
+
+	/** @param file The file to append to. Rolled segments are stored next to it.
+	 * @param queueCapacity Maximum number of messages waiting to be written.
+	 * @param policy What to do when messages are logged faster than they can be written. */
+	public RollingFileSink (FileHandle file, int queueCapacity, LogOverflowPolicy policy) {
+		if (file.isDirectory()) {
+			throw new IllegalArgumentException("File cannot be a directory!");
+		}
+		this.file = file;
+		queue = new LogQueue(queueCapacity, policy);
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				try {
+					writeLoop();
+				} finally {
+					// an Error ended the loop
+					if (running && !failed) fail();
+				}
+			}
+		}, "Console log writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** @param maxFileSize Size in bytes after which the file is rolled over, or 0 to never roll over by size. */
+	public void setMaxFileSize (long maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
+	/** @param rollInterval Time in milliseconds after which the file is rolled over, or 0 to never roll over by time. */
+	public void setRollInterval (long rollInterval) {
+		this.rollInterval = rollInterval;
+	}
+
+	/** @param flushInterval Maximum time in milliseconds a message stays queued before it is written. */
+	public void setFlushInterval (long flushInterval) {
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	/** @param compress If rolled over segments should be compressed. */
+	public void setCompress (boolean compress) {
+		this.compress = compress;
+	}
+
+	/** @return Number of messages discarded because the queue was full. */
+	public long getDroppedCount () {
+		return queue.getDroppedCount();
+	}
+
+	/** @return Whether the writer thread stopped because the file could not be written. Messages are discarded from then on. */
+	public boolean isFailed () {
+		return failed;
+	}
+
+	@Override
+	public void write (String msg, LogLevel level, long timeStamp) {
+		if (!running || failed) return;
+		queue.offer(msg, level, timeStamp);
+		if (queue.size() >= queue.getCapacity() / 2) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	@Override
+	public void flush () {
+		long request;
+		synchronized (this) {
+			request = ++flushRequested;
+		}
+		while (flushCompleted < request && thread.isAlive()) {
+			LockSupport.unpark(thread);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+
+	@Override
+	public void dispose () {
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writeLoop () {
+		while (true) {
+			boolean stop = !running;
+			long request = flushRequested;
+			try {
+				queue.drain(batchWriter);
+				writeBatch(request > flushCompleted || stop);
+			} catch (IOException e) {
+				e.printStackTrace();
+				batch.setLength(0);
+				StreamUtils.closeQuietly(out);
+				out = null;
+			} catch (RuntimeException e) {
+				// e.g. a GdxRuntimeException because the file can't be created or moved, retrying won't help
+				e.printStackTrace();
+				StreamUtils.closeQuietly(out);
+				out = null;
+				fail();
+				return;
+			}
+			if (request > flushCompleted) flushCompleted = request;
+			if (stop) break;
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+		}
+		StreamUtils.closeQuietly(out);
+		out = null;
+		flushCompleted = Long.MAX_VALUE;
+	}
+
+	/** Stops accepting messages and releases the threads waiting for room in the queue. */
+	private void fail () {
+		failed = true;
+		// threads blocked in offer() check the policy again and drop their message
+		queue.setOverflowPolicy(LogOverflowPolicy.DROP_NEWEST);
+		queue.clear();
+		flushCompleted = Long.MAX_VALUE;
+	}
+
+	/** Receives the queued messages on the writer thread and collects them in {@link #batch}. */
+	private final LogSink batchWriter = new LogSink() {
+		@Override
+		public void write (String msg, LogLevel level, long timeStamp) {
+			batch.append(timeStamp).append(": ").append(level.getIdentifier()).append(msg).append('\n');
+			if (batch.length() >= CHUNK_SIZE) {
+				try {
+					writeBatch(false);
+				} catch (IOException e) {
+					e.printStackTrace();
+					batch.setLength(0);
+				}
+			}
+		}
+
+		@Override
+		public void flush () {
+		}
+
+		@Override
+		public void dispose () {
+		}
+	};
+
+	/** Writes the batched messages to the file and rolls it over if it is due. */
+	private void writeBatch (boolean flush) throws IOException {
+		int length = batch.length();
+		if (length > 0) {
+			if (out == null) open();
+			for (int offset = 0; offset < length; offset += chunk.length) {
+				int count = Math.min(chunk.length, length - offset);
+				batch.getChars(offset, offset + count, chunk, 0);
+				out.write(chunk, 0, count);
+			}
+			batch.setLength(0);
+		}
+		if (out == null) return;
+
+		if (flush) out.flush();
+		long maxSize = maxFileSize, interval = rollInterval;
+		if ((maxSize > 0 && counter.count >= maxSize) || (interval > 0 && TimeUtils.timeSinceMillis(openedAt) >= interval)) {
+			roll();
+		}
+	}
+
+	private void open () throws IOException {
+		counter = new CountingOutputStream(file.write(true), file.exists() ? file.length() : 0);
+		out = new OutputStreamWriter(new BufferedOutputStream(counter, CHUNK_SIZE), "UTF-8");
+		openedAt = TimeUtils.millis();
+	}
+
+	private void roll () throws IOException {
+		out.close();
+		out = null;
+		counter = null;
+
+		FileHandle rolled = rolledFile(file.extension());
+		file.moveTo(rolled);
+		if (compress) {
+			FileHandle compressed = rolled.sibling(rolled.name() + ".deflate");
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			InputStream in = null;
+			OutputStream deflaterOut = null;
+			try {
+				in = rolled.read();
+				deflaterOut = new DeflaterOutputStream(compressed.write(false), deflater);
+				StreamUtils.copyStream(in, deflaterOut);
+			} finally {
+				StreamUtils.closeQuietly(in);
+				StreamUtils.closeQuietly(deflaterOut);
+				deflater.end();
+			}
+			rolled.delete();
+		}
+	}
+
+	private FileHandle rolledFile (String extension) {
+		String name = file.nameWithoutExtension() + "-" + TimeUtils.millis();
+		String suffix = extension.isEmpty() ? "" : "." + extension;
+		FileHandle rolled = file.sibling(name + suffix);
+		for (int i = 1; rolled.exists(); i++) {
+			rolled = file.sibling(name + "-" + i + suffix);
+		}
+		return rolled;
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		private final OutputStream out;
+		long count;
+
+		CountingOutputStream (OutputStream out, long count) {
+			this.out = out;
+			this.count = count;
+		}
+
+		@Override
+		public void write (int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write (byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void flush () throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close () throws IOException {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.strongjoshua.console.log.LogLevel;
+
+public class ArgumentConvertersTest {
+	private final ArgumentConverters converters = new ArgumentConverters();
+
+	@Test
+	public void shouldConvertIntegersInRange() {
+		ArgumentConverter<Byte> converter = converters.get(byte.class);
+		assertEquals(Byte.valueOf((byte) 127), converter.convert("+127"));
+		assertEquals(Byte.valueOf((byte) -128), converter.convert("-128"));
+		for (String value : new String[] {"128", "-129", "", "-", "1x", "1.0"}) {
+			assertNull(value, converter.convert(value));
+		}
+		assertEquals(Long.valueOf(Long.MIN_VALUE), converters.get(Long.class).convert("-9223372036854775808"));
+		assertNull(converters.get(long.class).convert("9223372036854775808"));
+	}
+
+	@Test
+	public void shouldConvertDecimals() {
+		ArgumentConverter<Double> converter = converters.get(double.class);
+		assertEquals(-1500, converter.convert("-1.5e3"), 0);
+		assertEquals(0.5, converter.convert(".5"), 0);
+		assertEquals(Double.NEGATIVE_INFINITY, converter.convert("-Infinity"), 0);
+		for (String value : new String[] {"", ".", "1e", "e5", "1.5f", "0x10", "1,5"}) {
+			assertNull(value, converter.convert(value));
+		}
+	}
+
+	@Test
+	public void shouldConvertBooleansEnumsVectorsAndColors() {
+		assertEquals(Boolean.TRUE, converters.get(boolean.class).convert("TRUE"));
+		assertEquals(Boolean.FALSE, converters.get(Boolean.class).convert("false"));
+		assertNull(converters.get(boolean.class).convert("yes"));
+
+		assertSame(LogLevel.ERROR, converters.get(LogLevel.class).convert("error"));
+		assertNull(converters.get(LogLevel.class).convert("loud"));
+
+		assertEquals(new Vector2(1.5f, -2), converters.get(Vector2.class).convert("1.5,-2"));
+		assertNull(converters.get(Vector2.class).convert("1.5"));
+
+		assertEquals(new Color(1, 0, 0, 1), converters.get(Color.class).convert("#ff0000"));
+		assertEquals(new Color(0x00ff0080), converters.get(Color.class).convert("00FF0080"));
+		assertEquals(Color.BLUE, converters.get(Color.class).convert("blue"));
+		assertNull(converters.get(Color.class).convert("#blue"));
+	}
+
+	@Test
+	public void shouldUseRegisteredConverters() {
+		assertNull(converters.get(Object.class));
+		ArgumentConverter<Object> converter = new ArgumentConverter<Object>() {
+			@Override
+			public Object convert(CharSequence value) {
+				return value.toString();
+			}
+		};
+		converters.put(Object.class, converter);
+		assertSame(converter, converters.get(Object.class));
+	}
+}
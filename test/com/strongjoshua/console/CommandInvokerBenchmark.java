@@ -0,0 +1,73 @@
+package com.strongjoshua.console;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Compares the cost of invoking {@link CommandExecutor} methods with primitive
+ * parameters through reflection and through the invokers generated by
+ * {@link LambdaInvokers}. The arguments are boxed once up front, as the
+ * converters box them for every command. Not run with the tests, start
+ * {@link #main(String[])} to run it.
+ */
+public class CommandInvokerBenchmark {
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int ROUNDS = 10;
+	private static final int INVOCATIONS = 1000000;
+
+	public static class Executor extends CommandExecutor {
+		long sum;
+
+		public void testInt(int a, int b) {
+			sum += a + b;
+		}
+
+		public void testFloat(float a, float b) {
+			sum += (long) (a + b);
+		}
+
+		public void testBoolean(boolean a) {
+			sum += a ? 1 : 0;
+		}
+
+		public void testLong(long a, long b) {
+			sum += a + b;
+		}
+	}
+
+	public static void main(String[] args) throws ReflectionException {
+		Executor executor = new Executor();
+		benchmark(executor, "testInt", new Object[] {1, 2});
+		benchmark(executor, "testFloat", new Object[] {1f, 2f});
+		benchmark(executor, "testBoolean", new Object[] {true});
+		benchmark(executor, "testLong", new Object[] {1L, 2L});
+		System.out.println("(checksum " + executor.sum + ")");
+	}
+
+	private static void benchmark(Executor executor, String name, Object[] args) throws ReflectionException {
+		Method method = LambdaInvokersTest.method(Executor.class, name);
+		method.setAccessible(true);
+		CommandInvoker reflection = AnnotationCommandCreator.REFLECTION_INVOKERS.create(method);
+		CommandInvoker generated = new LambdaInvokers().create(method);
+
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			run(reflection, executor, args);
+			run(generated, executor, args);
+		}
+		long reflectionTime = 0, generatedTime = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			reflectionTime += run(reflection, executor, args);
+			generatedTime += run(generated, executor, args);
+		}
+		System.out.printf("%-12s reflection %6.1f ns/call, generated %6.1f ns/call%n", name,
+				reflectionTime / (double) (ROUNDS * INVOCATIONS), generatedTime / (double) (ROUNDS * INVOCATIONS));
+	}
+
+	private static long run(CommandInvoker invoker, Executor executor, Object[] args) throws ReflectionException {
+		long start = System.nanoTime();
+		for (int i = 0; i < INVOCATIONS; i++) {
+			invoker.invoke(executor, args);
+		}
+		return System.nanoTime() - start;
+	}
+}
@@ -0,0 +1,53 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CommandLineTest {
+	private static void assertTokens(CommandLine line, String... tokens) {
+		assertEquals(tokens.length, line.size());
+		for (int i = 0; i < tokens.length; i++) {
+			assertEquals(tokens[i], line.get(i).toString());
+		}
+	}
+
+	@Test
+	public void shouldSplitOnWhitespace() {
+		CommandLine line = new CommandLine();
+		assertTrue(line.parse("  spawn\tenemy  3 "));
+		assertTokens(line, "spawn", "enemy", "3");
+		assertEquals("enemy  3 ", line.getRemainder(1));
+		assertEquals("", line.getRemainder(3));
+
+		assertTrue(line.parse(""));
+		assertTokens(line);
+	}
+
+	@Test
+	public void shouldUnquoteAndUnescape() {
+		CommandLine line = new CommandLine();
+		assertTrue(line.parse("say \"hello world\" it\\'s 'a \\ b' \"\" x\"y z\"w \"q\\\"q\""));
+		assertTokens(line, "say", "hello world", "it's", "a \\ b", "", "xy zw", "q\"q");
+		assertEquals("\"hello world\" it\\'s 'a \\ b' \"\" x\"y z\"w \"q\\\"q\"", line.getRemainder(1));
+	}
+
+	@Test
+	public void shouldKeepBackslashesBeforeOtherCharacters() {
+		CommandLine line = new CommandLine();
+		assertTrue(line.parse("printLog C:\\logs\\out.txt"));
+		assertTokens(line, "printLog", "C:\\logs\\out.txt");
+
+		assertTrue(line.parse("printLog \"C:\\my logs\\\\\" a\\ b c\\\\d\\n"));
+		assertTokens(line, "printLog", "C:\\my logs\\", "a b", "c\\d\\n");
+	}
+
+	@Test
+	public void shouldReportUnterminatedQuotes() {
+		CommandLine line = new CommandLine();
+		assertFalse(line.parse("say \"hello"));
+		assertTokens(line, "say");
+	}
+}
@@ -0,0 +1,143 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.strongjoshua.console.log.LogConverter;
+import com.strongjoshua.console.log.LogLevel;
+import com.strongjoshua.console.log.LogOverflowPolicy;
+import com.strongjoshua.console.log.LogQueue;
+import com.strongjoshua.console.log.LogSink;
+
+public class ConcurrentLoggingTest {
+	private static final int THREADS = 8;
+	private static final int MESSAGES = 20000;
+
+	/** Queues entries like the GUI console does for other threads. */
+	private static class QueueingConsole extends AbstractConsole {
+		final LogQueue queue = new LogQueue(THREADS * MESSAGES, LogOverflowPolicy.BLOCK);
+
+		@Override
+		protected void appendEntry(String msg, LogLevel level) {
+			queue.offer(msg, level, 0);
+		}
+	}
+
+	@Test
+	public void shouldRunConvertersOnAllThreads() throws InterruptedException {
+		final QueueingConsole console = new QueueingConsole();
+		console.addLogConverter(new LogConverter() {
+			@Override
+			public String convert(String msg) {
+				return "a" + msg;
+			}
+		});
+		console.addLogConverter(new LogConverter() {
+			@Override
+			public String convert(String msg) {
+				return "b" + msg;
+			}
+		});
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < MESSAGES; i++) {
+							console.log("m", LogLevel.DEFAULT);
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+
+		final int[] converted = new int[1];
+		int drained = console.queue.drain(new LogSink() {
+			@Override
+			public void write(String msg, LogLevel level, long timeStamp) {
+				if ("bam".equals(msg)) {
+					converted[0]++;
+				}
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void dispose() {
+			}
+		});
+		assertEquals(THREADS * MESSAGES, drained);
+		assertEquals(THREADS * MESSAGES, converted[0]);
+	}
+
+	@Test
+	public void shouldChangeSinksWhileLogging() throws InterruptedException {
+		final QueueingConsole console = new QueueingConsole();
+		final AtomicInteger written = new AtomicInteger();
+		final LogSink sink = new LogSink() {
+			@Override
+			public void write(String msg, LogLevel level, long timeStamp) {
+				written.incrementAndGet();
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void dispose() {
+			}
+		};
+		console.addLogSink(sink);
+
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < MESSAGES; i++) {
+							console.log("m", LogLevel.DEFAULT);
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (int i = 0; i < 1000; i++) {
+			console.addLogSink(sink);
+			console.removeLogSink(sink);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		// the sink added first stays, the other copy comes and goes
+		assertTrue(written.get() >= THREADS * MESSAGES);
+	}
+}
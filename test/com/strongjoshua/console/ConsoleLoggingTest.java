@@ -0,0 +1,92 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strongjoshua.console.log.LogLevel;
+
+public class ConsoleLoggingTest {
+	private HeadlessConsole console;
+
+	@Before
+	public void setUp() {
+		console = new HeadlessConsole();
+		console.setLoggingToSystem(false);
+	}
+
+	@Test
+	public void shouldDropEntriesBelowMinLevel() {
+		console.setMinLogLevel(LogLevel.ERROR);
+		assertFalse(console.isLoggable(LogLevel.DEFAULT));
+		assertTrue(console.isLoggable(LogLevel.ERROR));
+
+		console.log("dropped", LogLevel.DEFAULT);
+		console.log(LogLevel.DEFAULT, "dropped {}", 1);
+		console.log("kept", LogLevel.ERROR);
+		console.log(LogLevel.ERROR, "kept {} {}", 1, 2);
+		assertEquals(2, console.getLog().size());
+		assertEquals("kept", console.getLog().get(0).getText());
+		assertEquals("kept 1 2", console.getLog().get(1).getText());
+	}
+
+	@Test
+	public void shouldDropAllEntriesWhenDisabled() {
+		final int[] calls = new int[1];
+		Supplier<String> supplier = new Supplier<String>() {
+			@Override
+			public String get() {
+				calls[0]++;
+				return "supplied";
+			}
+		};
+		console.setDisabled(true);
+		assertFalse(console.isLoggable(LogLevel.COMMAND));
+		console.log("plain", LogLevel.DEFAULT);
+		console.log(LogLevel.ERROR, "pattern {}", "a");
+		console.log(LogLevel.ERROR, supplier);
+		console.log(new IllegalStateException());
+		assertEquals(0, console.getLog().size());
+		assertEquals(0, calls[0]);
+
+		console.setDisabled(false);
+		console.log("plain", LogLevel.DEFAULT);
+		assertEquals(1, console.getLog().size());
+	}
+
+	@Test
+	public void shouldNotCallFilteredSuppliers() {
+		final int[] calls = new int[1];
+		Supplier<String> supplier = new Supplier<String>() {
+			@Override
+			public String get() {
+				calls[0]++;
+				return "supplied";
+			}
+		};
+		console.setMinLogLevel(LogLevel.ERROR);
+		console.log(LogLevel.DEFAULT, supplier);
+		assertEquals(0, calls[0]);
+		assertEquals(0, console.getLog().size());
+
+		console.log(LogLevel.ERROR, supplier);
+		assertEquals(1, calls[0]);
+		assertEquals("supplied", console.getLog().get(0).getText());
+	}
+
+	@Test
+	public void shouldLogNullMessages() {
+		console.log((String) null);
+		assertEquals("null", console.getLog().get(0).getText());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectNullMinLevel() {
+		console.setMinLogLevel(null);
+	}
+}
@@ -4,18 +4,22 @@
 
 package com.strongjoshua.console;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.strongjoshua.console.log.LogSnapshot;
+
 /** @author Eric */
 public class ConsoleTest {
 
 	private Console headlessConsole;
 	private CommandExecutor commandExec;
 	private boolean commandFound;
+	private AnnotationCommandCreator creator;
 
 	@Before
 	public void setup() {
@@ -92,8 +96,13 @@ public class ConsoleTest {
 
 				console.log(String.valueOf(arg1));
 			}
+
+			@SuppressWarnings("unused")
+			private void testPrivate() {
+				commandFound = true;
+			}
 		};
-		AnnotationCommandCreator creator = new AnnotationCommandCreator(commandExec,
+		creator = new AnnotationCommandCreator(commandExec,
 				headlessConsole);
 
 		CommandManager manager = headlessConsole.getCommandManager();
@@ -109,6 +118,13 @@ public class ConsoleTest {
 		assertTrue(commandFound);
 	}
 
+	@Test
+	public void test_QuotedStringArgument() {
+		headlessConsole.execCommand("testString \"two words\"");
+
+		assertTrue(commandFound);
+	}
+
 	@Test
 	public void test_BooleanArgument() {
 		headlessConsole.execCommand("testBoolean true false");
@@ -123,6 +139,13 @@ public class ConsoleTest {
 		assertTrue(commandFound);
 	}
 
+	@Test
+	public void test_ByteOverflow() {
+		headlessConsole.execCommand("testByte " + (Byte.MAX_VALUE + 1) + " 0");
+
+		assertFalse(commandFound);
+	}
+
 	@Test
 	public void test_ShortArgument() {
 		headlessConsole.execCommand("testShort " + Short.MAX_VALUE + " " + Short.MIN_VALUE);
@@ -158,6 +181,34 @@ public class ConsoleTest {
 		assertTrue(commandFound);
 	}
 
+	@Test
+	public void test_ExecutorChange() {
+		creator.setCommandExecutor(new CommandExecutor() {
+			@SuppressWarnings("unused")
+			public void testString(String str, int count) {
+				commandFound = true;
+			}
+		});
+		headlessConsole.execCommand("testString STRING");
+		assertFalse(commandFound);
+
+		headlessConsole.execCommand("teststring STRING 2");
+		assertTrue(commandFound);
+	}
+
+	@Test
+	public void test_RegisteredConverter() {
+		creator.setConverter(Object.class, new ArgumentConverter<Object>() {
+			@Override
+			public Object convert(CharSequence value) {
+				return value.toString();
+			}
+		});
+		headlessConsole.execCommand("testObject test");
+
+		assertTrue(commandFound);
+	}
+
 	@Test
 	public void test_ObjectArgument() {
 		headlessConsole.execCommand("testObject test test");
@@ -165,4 +216,47 @@ public class ConsoleTest {
 		assertFalse(commandFound);
 	}
 
+	@Test
+	public void test_PrivateMethod() {
+		headlessConsole.execCommand("testPrivate");
+
+		assertFalse(commandFound);
+		LogSnapshot snapshot = headlessConsole.getLogSnapshot();
+		assertEquals("No such method found.", snapshot.get(snapshot.size() - 1).getText());
+	}
+
+	@Test
+	public void test_FindDoesNotFindItsOutput() {
+		headlessConsole.log("map loaded");
+		headlessConsole.log("map unloaded");
+		headlessConsole.log("player spawned");
+
+		headlessConsole.execCommand("find map");
+		LogSnapshot first = headlessConsole.getLogSnapshot();
+		headlessConsole.execCommand("find map");
+		LogSnapshot second = headlessConsole.getLogSnapshot();
+
+		// the command, the count and one entry per match
+		assertEquals(4, second.size() - first.size());
+		assertEquals("2 entries found.", second.get(second.size() - 3).getText());
+		assertEquals("map loaded", second.get(second.size() - 2).getText());
+		assertEquals("map unloaded", second.get(second.size() - 1).getText());
+
+		headlessConsole.execCommand("find player");
+		LogSnapshot third = headlessConsole.getLogSnapshot();
+		assertEquals("1 entry found.", third.get(third.size() - 2).getText());
+	}
+
+	@Test
+	public void test_OverriddenFind() {
+		creator.setCommandExecutor(new CommandExecutor() {
+			@Override
+			public void find(String text) {
+				commandFound = true;
+			}
+		});
+		headlessConsole.execCommand("find map");
+
+		assertTrue(commandFound);
+	}
 }
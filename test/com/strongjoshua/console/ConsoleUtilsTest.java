@@ -0,0 +1,23 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ConsoleUtilsTest {
+	@Test
+	public void shouldReplacePlaceholdersInOrder() {
+		assertEquals("Loaded map in 12 ms", ConsoleUtils.formatMessage("Loaded {} in {} ms", "map", 12));
+		assertEquals("null and {}", ConsoleUtils.formatMessage("{} and {}", (Object) null));
+		assertEquals("a", ConsoleUtils.formatMessage("{}", "a", "surplus"));
+		assertEquals("{no} placeholder", ConsoleUtils.formatMessage("{no} placeholder", 1));
+	}
+
+	@Test
+	public void shouldReturnPatternWithoutArguments() {
+		String pattern = "{} stays";
+		assertSame(pattern, ConsoleUtils.formatMessage(pattern));
+		assertSame(pattern, ConsoleUtils.formatMessage(pattern, (Object[]) null));
+	}
+}
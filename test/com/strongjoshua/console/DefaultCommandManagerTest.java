@@ -0,0 +1,103 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultCommandManagerTest {
+	private DefaultCommandManager manager;
+	private Command spawn;
+	private CommandCategory world;
+
+	private static Command command(String name) {
+		CommandAdapter command = new CommandAdapter() {
+			@Override
+			public void execute(String params) {
+			}
+		};
+		command.setName(name);
+		return command;
+	}
+
+	private static CommandCategory category(final String name) {
+		return new CommandCategory() {
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+
+	@Before
+	public void setUp() {
+		manager = new DefaultCommandManager();
+		for (int i = 0; i < 300; i++) {
+			manager.add(command("command" + i));
+		}
+		spawn = command("spawnEnemy");
+		world = category("World");
+		world.getSubCommands().add(spawn);
+		manager.add(world);
+	}
+
+	@Test
+	public void shouldFindCommandsIgnoringCase() {
+		assertSame(world, manager.getCommand("world"));
+		assertSame(world, manager.getCommand("WORLD"));
+		assertSame(manager.getCommands().get(42), manager.getCommand("Command42"));
+		assertNull(manager.getCommand("command300"));
+		assertNull(manager.getCommand(""));
+	}
+
+	@Test
+	public void shouldFindSubCommands() {
+		assertSame(spawn, manager.getCommand("world.SPAWNENEMY"));
+		assertSame(spawn, manager.getCommand("> world.spawnenemy 3", 2, 18));
+		assertNull(manager.getCommand("world.unknown"));
+		assertNull(manager.getCommand("command1.spawnEnemy"));
+		assertNull(manager.getCommand("world.spawnEnemy.more"));
+
+		Command despawn = command("despawn");
+		world.getSubCommands().add(despawn);
+		assertSame(despawn, manager.getCommand("world.despawn"));
+	}
+
+	@Test
+	public void shouldIndexCommandsAddedToTheArray() {
+		Command direct = command("direct");
+		manager.getCommands().add(direct);
+		assertSame(direct, manager.getCommand("Direct"));
+	}
+
+	@Test
+	public void shouldIndexCommandsReplacedInTheArray() {
+		assertSame(manager.getCommands().get(42), manager.getCommand("command42"));
+		Command replacement = command("replacement");
+		manager.getCommands().set(42, replacement);
+		assertNull(manager.getCommand("command42"));
+		assertSame(replacement, manager.getCommand("replacement"));
+
+		assertSame(spawn, manager.getCommand("world.spawnEnemy"));
+		Command despawn = command("despawn");
+		world.getSubCommands().set(0, despawn);
+		assertNull(manager.getCommand("world.spawnEnemy"));
+		assertSame(despawn, manager.getCommand("world.despawn"));
+	}
+
+	@Test
+	public void shouldIndexCommandsRemovedOrReorderedInTheArray() {
+		Command removed = manager.getCommands().removeIndex(7);
+		assertNull(manager.getCommand("command7"));
+		manager.getCommands().insert(0, removed);
+		assertSame(removed, manager.getCommand("command7"));
+
+		// of two commands with the same name the later one is found
+		Command first = command("spawnEnemy");
+		world.getSubCommands().insert(0, first);
+		assertSame(spawn, manager.getCommand("world.spawnEnemy"));
+		world.getSubCommands().swap(0, 1);
+		assertSame(first, manager.getCommand("world.spawnEnemy"));
+	}
+}
@@ -0,0 +1,89 @@
+package com.strongjoshua.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+public class LambdaInvokersTest {
+	public static class Executor extends CommandExecutor {
+		public String result;
+
+		public void testPrimitives(int a, float b, boolean c, long d) {
+			result = a + " " + b + " " + c + " " + d;
+		}
+
+		public int testString(String text) {
+			result = text;
+			return text.length();
+		}
+
+		public void testNone() {
+			result = "none";
+		}
+
+		public void testThrow() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+	static class HiddenExecutor extends CommandExecutor {
+		public void testNone() {
+		}
+	}
+
+	private final LambdaInvokers invokers = new LambdaInvokers();
+	private final Executor executor = new Executor();
+
+	@Test
+	public void shouldInvokeMethodsWithPrimitiveParameters() throws ReflectionException {
+		invokers.create(method(Executor.class, "testPrimitives")).invoke(executor, new Object[] {1, 2.5f, true, 3L});
+		assertEquals("1 2.5 true 3", executor.result);
+
+		invokers.create(method(Executor.class, "testString")).invoke(executor, new Object[] {"text"});
+		assertEquals("text", executor.result);
+
+		invokers.create(method(Executor.class, "testNone")).invoke(executor, new Object[0]);
+		assertEquals("none", executor.result);
+	}
+
+	@Test
+	public void shouldWrapExceptionsOfTheMethod() throws ReflectionException {
+		CommandInvoker invoker = invokers.create(method(Executor.class, "testThrow"));
+		try {
+			invoker.invoke(executor, new Object[0]);
+			fail();
+		} catch (ReflectionException e) {
+			assertSame(IllegalStateException.class, e.getCause().getClass());
+		}
+	}
+
+	@Test(expected = ReflectionException.class)
+	public void shouldRejectMethodsOfNonPublicClasses() throws ReflectionException {
+		invokers.create(method(HiddenExecutor.class, "testNone"));
+	}
+
+	@Test
+	public void shouldExecuteCommandsThroughGeneratedInvokers() {
+		Console console = new HeadlessConsole();
+		for (Command command : new AnnotationCommandCreator(executor, console).createCommands()) {
+			console.getCommandManager().add(command);
+		}
+		console.execCommand("testPrimitives 1 2.5 true 3");
+		assertEquals("1 2.5 true 3", executor.result);
+	}
+
+	static Method method(Class<?> type, String name) {
+		for (Method method : ClassReflection.getDeclaredMethods(type)) {
+			if (method.getName().equals(name)) {
+				return method;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+}
@@ -0,0 +1,107 @@
+package com.strongjoshua.console.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.LongPredicate;
+
+import org.junit.Test;
+
+public class LogSelectionTest {
+	@Test
+	public void shouldAddAndRemoveSingleEntries() {
+		LogSelection selection = new LogSelection();
+		assertTrue(selection.isEmpty());
+
+		selection.add(130);
+		selection.add(5);
+		selection.add(130);
+		assertEquals(2, selection.size());
+		assertTrue(selection.contains(5));
+		assertTrue(selection.contains(130));
+		assertFalse(selection.contains(6));
+		assertFalse(selection.contains(1000));
+
+		selection.remove(5);
+		selection.remove(6);
+		assertEquals(1, selection.size());
+		assertFalse(selection.contains(5));
+	}
+
+	@Test
+	public void shouldSelectRanges() {
+		LogSelection selection = new LogSelection();
+		selection.add(60, 200);
+		assertEquals(141, selection.size());
+		assertFalse(selection.contains(59));
+		assertTrue(selection.contains(60));
+		assertTrue(selection.contains(128));
+		assertTrue(selection.contains(200));
+		assertFalse(selection.contains(201));
+
+		selection.add(100, 300);
+		assertEquals(241, selection.size());
+
+		selection.add(3, 3);
+		assertEquals(242, selection.size());
+		assertTrue(selection.contains(3));
+		assertTrue(selection.contains(60));
+	}
+
+	@Test
+	public void shouldIterateInOrder() {
+		LogSelection selection = new LogSelection();
+		selection.add(70);
+		selection.add(2, 4);
+		selection.add(500);
+
+		assertEquals(2, selection.next(0));
+		assertEquals(3, selection.next(3));
+		assertEquals(70, selection.next(5));
+		assertEquals(500, selection.next(71));
+		assertEquals(-1, selection.next(501));
+	}
+
+	@Test
+	public void shouldRemoveEvictedEntries() {
+		LogSelection selection = new LogSelection();
+		selection.add(10, 1000);
+		selection.removeBefore(500);
+		assertEquals(501, selection.size());
+		assertFalse(selection.contains(499));
+		assertTrue(selection.contains(500));
+		assertTrue(selection.contains(1000));
+		assertEquals(500, selection.next(0));
+
+		selection.removeBefore(2000);
+		assertTrue(selection.isEmpty());
+
+		selection.clear();
+		selection.add(5000);
+		assertEquals(1, selection.size());
+		assertEquals(5000, selection.next(0));
+	}
+
+	@Test
+	public void shouldOnlyDeselectRejectedEntries() {
+		LogSelection selection = new LogSelection();
+		selection.add(50, 249);
+		selection.add(1000);
+		selection.retain(new LongPredicate() {
+			@Override
+			public boolean test(long sequence) {
+				// e.g. a filter hiding the odd entries and everything after 500
+				return sequence % 2 == 0 && sequence < 500;
+			}
+		});
+		assertEquals(100, selection.size());
+		assertTrue(selection.contains(50));
+		assertFalse(selection.contains(51));
+		assertTrue(selection.contains(128));
+		assertTrue(selection.contains(248));
+		assertFalse(selection.contains(1000));
+		assertEquals(52, selection.next(51));
+		assertEquals(-1, selection.next(249));
+	}
+}
@@ -0,0 +1,77 @@
+package com.strongjoshua.console.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RowOffsetsTest {
+	@Test
+	public void shouldUseEstimateForUnmeasuredRows() {
+		RowOffsets rows = new RowOffsets(10);
+		rows.add(5);
+		assertEquals(5, rows.size());
+		assertEquals(50, rows.getTotal(), 0);
+		assertFalse(rows.isMeasured(2));
+
+		rows.set(2, 30);
+		assertTrue(rows.isMeasured(2));
+		assertEquals(70, rows.getTotal(), 0);
+		assertEquals(20, rows.getOffset(2), 0);
+		assertEquals(50, rows.getOffset(3), 0);
+
+		rows.unmeasure(2);
+		assertEquals(50, rows.getTotal(), 0);
+	}
+
+	@Test
+	public void shouldFindRowAtOffset() {
+		RowOffsets rows = new RowOffsets(10);
+		rows.add(4);
+		rows.set(1, 25);
+		// rows cover [0, 10), [10, 35), [35, 45), [45, 55)
+		assertEquals(0, rows.getRowAt(0));
+		assertEquals(0, rows.getRowAt(9.5f));
+		assertEquals(1, rows.getRowAt(10));
+		assertEquals(1, rows.getRowAt(34));
+		assertEquals(2, rows.getRowAt(35));
+		assertEquals(3, rows.getRowAt(50));
+		assertEquals(0, rows.getRowAt(-5));
+		assertEquals(3, rows.getRowAt(100));
+	}
+
+	@Test
+	public void shouldRemoveRowsFromTheFront() {
+		RowOffsets rows = new RowOffsets(10);
+		for (int i = 0; i < 100; i++) {
+			rows.add(1);
+			rows.set(rows.size() - 1, i + 1);
+			if (rows.size() > 3) {
+				rows.removeFirst(1);
+			}
+		}
+		// heights 98, 99 and 100 are left
+		assertEquals(3, rows.size());
+		assertEquals(297, rows.getTotal(), 0.001f);
+		assertEquals(98, rows.get(0), 0);
+		assertEquals(98, rows.getOffset(1), 0.001f);
+		assertEquals(0, rows.getRowAt(50));
+		assertEquals(1, rows.getRowAt(98));
+		assertEquals(2, rows.getRowAt(200));
+	}
+
+	@Test
+	public void shouldUnmeasureAndClear() {
+		RowOffsets rows = new RowOffsets(10);
+		rows.add(3);
+		rows.set(0, 40);
+		rows.unmeasureAll();
+		assertEquals(30, rows.getTotal(), 0);
+
+		rows.clear();
+		assertEquals(0, rows.size());
+		assertEquals(0, rows.getTotal(), 0);
+		assertEquals(-1, rows.getRowAt(0));
+	}
+}
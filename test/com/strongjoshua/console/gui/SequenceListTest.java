@@ -0,0 +1,41 @@
+package com.strongjoshua.console.gui;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SequenceListTest {
+	@Test
+	public void shouldFindSequences() {
+		SequenceList list = new SequenceList();
+		list.add(2);
+		list.add(5);
+		list.add(9);
+		assertEquals(3, list.size());
+		assertEquals(9, list.last());
+		assertEquals(1, list.indexOf(5));
+		assertEquals(-1, list.indexOf(1));
+		assertEquals(-3, list.indexOf(6));
+		assertEquals(-4, list.indexOf(10));
+	}
+
+	@Test
+	public void shouldRemoveFromTheFront() {
+		SequenceList list = new SequenceList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(i * 2);
+			if (list.size() > 10) {
+				assertEquals(1, list.removeBefore(list.get(1)));
+			}
+		}
+		assertEquals(10, list.size());
+		assertEquals(1980, list.get(0));
+		assertEquals(1998, list.last());
+		assertEquals(5, list.removeBefore(1989));
+		assertEquals(1990, list.get(0));
+
+		list.clear();
+		assertEquals(0, list.size());
+		assertEquals(-1, list.indexOf(5));
+	}
+}
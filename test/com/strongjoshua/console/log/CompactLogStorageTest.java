@@ -0,0 +1,70 @@
+
+package com.strongjoshua.console.log;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/** Runs the {@link LogTest}s against a {@link CompactLogStorage}. */
+public class CompactLogStorageTest extends LogTest {
+	@Override
+	@Before
+	public void setUp () {
+		log = new Log(new CompactLogStorage(256));
+	}
+
+	@Test
+	public void shouldRoundTripNonAsciiMessages () {
+		String msg = "caf\u00e9 \u20ac \ud83d\ude00 \u00fc";
+		log.addEntry(msg, LogLevel.SUCCESS, 42);
+
+		LogEntry entry = log.get(0);
+		assertEquals(msg, entry.getText());
+		assertEquals(LogLevel.SUCCESS, entry.getLevel());
+		assertEquals(42, entry.getTimeStamp());
+		assertEquals(0, entry.getSequence());
+	}
+
+	@Test
+	public void shouldStoreMessagesLongerThanASegment () {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append(i % 10);
+		}
+		log.addEntry("before", LogLevel.DEFAULT);
+		log.addEntry(sb.toString(), LogLevel.DEFAULT);
+		log.addEntry("after", LogLevel.DEFAULT);
+
+		assertEquals("before", log.get(0).getText());
+		assertEquals(sb.toString(), log.get(1).getText());
+		assertEquals("after", log.get(2).getText());
+	}
+
+	@Test
+	public void shouldKeepReadingAfterSegmentsWereFreed () {
+		log.setMaxEntries(50);
+		for (int i = 0; i < 10000; i++) {
+			log.addEntry("entry number " + i, LogLevel.DEFAULT, i);
+		}
+
+		assertEquals(50, log.size());
+		assertEquals("entry number 9950", log.get(0).getText());
+		assertEquals("entry number 9999", log.getBySequence(9999).getText());
+	}
+
+	@Test
+	public void shouldMoveEntriesWhenStorageIsReplaced () {
+		Log log = new Log();
+		log.setCollapseRepeats(true);
+		log.addEntry("a", LogLevel.DEFAULT, 1);
+		log.addEntry("a", LogLevel.DEFAULT, 2);
+		log.addEntry("b", LogLevel.ERROR, 3);
+		log.setStorage(new CompactLogStorage());
+
+		assertEquals(2, log.size());
+		assertEquals("1-2: a (x2)", log.get(0).toString());
+		assertEquals("3: Error: b", log.get(1).toString());
+		assertEquals(1, log.get(1).getSequence());
+	}
+}
@@ -0,0 +1,61 @@
+
+package com.strongjoshua.console.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+public class LogPoolingTest {
+	@Test
+	public void shouldReuseEvictedEntries () {
+		Log log = new Log();
+		log.setPooled(true);
+		log.setMaxEntries(2);
+		log.addEntry("a", LogLevel.DEFAULT);
+		LogEntry first = log.get(0);
+		log.addEntry("b", LogLevel.DEFAULT);
+		log.addEntry("c", LogLevel.DEFAULT);
+		log.addEntry("d", LogLevel.DEFAULT);
+
+		assertSame(first, log.get(0));
+		assertEquals(2, first.getSequence());
+		assertNull(log.getBySequence(0));
+		assertSame(first, log.getBySequence(2));
+	}
+
+	@Test
+	public void shouldNotAllocateInSteadyState () {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)bean;
+		assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		long thread = Thread.currentThread().getId();
+
+		Log log = new Log();
+		log.setPooled(true);
+		log.setMaxEntries(1000);
+		String msg = "steady state";
+		// fill the log and warm up the JIT
+		for (int i = 0; i < 200000; i++) {
+			log.addEntry(msg, LogLevel.DEFAULT);
+		}
+
+		long allocated = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int i = 0; i < 100000; i++) {
+				log.addEntry(msg, LogLevel.DEFAULT);
+			}
+			allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+		}
+
+		assertEquals(1000, log.size());
+		assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+	}
+}
@@ -0,0 +1,89 @@
+
+package com.strongjoshua.console.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LogQueueTest {
+	private String text (LogEntry entry) {
+		return entry.addConsoleString(new StringBuilder()).toString();
+	}
+
+	@Test
+	public void shouldDrainMessagesInOrder () {
+		LogQueue queue = new LogQueue(8, LogOverflowPolicy.DROP_NEWEST);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(queue.offer("entry " + i, LogLevel.DEFAULT, i));
+		}
+
+		Log log = new Log();
+		assertEquals(5, queue.drain(log));
+		assertEquals(5, log.size());
+		assertEquals("entry 0", text(log.get(0)));
+		assertEquals("entry 4", text(log.get(4)));
+		assertEquals(0, queue.drain(log));
+	}
+
+	@Test
+	public void shouldDropNewestMessagesWhenFull () {
+		LogQueue queue = new LogQueue(4, LogOverflowPolicy.DROP_NEWEST);
+		for (int i = 0; i < 6; i++) {
+			queue.offer("entry " + i, LogLevel.DEFAULT, i);
+		}
+		assertFalse(queue.offer("entry 6", LogLevel.DEFAULT, 6));
+
+		Log log = new Log();
+		queue.drain(log);
+		assertEquals(4, log.size());
+		assertEquals("entry 0", text(log.get(0)));
+		assertEquals(3, queue.getDroppedCount());
+	}
+
+	@Test
+	public void shouldDropOldestMessagesWhenFull () {
+		LogQueue queue = new LogQueue(4, LogOverflowPolicy.DROP_OLDEST);
+		for (int i = 0; i < 6; i++) {
+			assertTrue(queue.offer("entry " + i, LogLevel.DEFAULT, i));
+		}
+
+		Log log = new Log();
+		queue.drain(log);
+		assertEquals(4, log.size());
+		assertEquals("entry 2", text(log.get(0)));
+		assertEquals("entry 5", text(log.get(3)));
+		assertEquals(2, queue.getDroppedCount());
+	}
+
+	@Test
+	public void shouldNotLoseMessagesFromConcurrentProducersWhenBlocking () throws InterruptedException {
+		final LogQueue queue = new LogQueue(16, LogOverflowPolicy.BLOCK);
+		final int producers = 4, messages = 5000;
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			threads[p] = new Thread(new Runnable() {
+				@Override
+				public void run () {
+					for (int i = 0; i < messages; i++) {
+						queue.offer("entry", LogLevel.DEFAULT, i);
+					}
+				}
+			});
+			threads[p].start();
+		}
+
+		Log log = new Log();
+		while (log.size() < producers * messages) {
+			queue.drain(log);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		queue.drain(log);
+
+		assertEquals(producers * messages, log.size());
+		assertEquals(0, queue.getDroppedCount());
+	}
+}
@@ -0,0 +1,310 @@
+
+package com.strongjoshua.console.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.LongArray;
+import com.strongjoshua.console.Console;
+
+public class LogTest {
+	protected Log log;
+
+	@Before
+	public void setUp () {
+		log = new Log();
+	}
+
+	private String text (LogEntry entry) {
+		return entry.addConsoleString(new StringBuilder()).toString();
+	}
+
+	@Test
+	public void shouldKeepAllEntriesWhenUnlimited () {
+		for (int i = 0; i < 100; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+
+		assertEquals(100, log.size());
+		assertEquals("entry 0", text(log.get(0)));
+		assertEquals("entry 99", text(log.get(99)));
+	}
+
+	@Test
+	public void shouldEvictOldestEntriesWhenMaxEntriesIsReached () {
+		log.setMaxEntries(10);
+		for (int i = 0; i < 25; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+
+		assertEquals(10, log.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals("entry " + (15 + i), text(log.get(i)));
+		}
+	}
+
+	@Test
+	public void shouldKeepNewestEntriesWhenMaxEntriesIsLowered () {
+		for (int i = 0; i < 20; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+		log.setMaxEntries(5);
+
+		assertEquals(5, log.size());
+		assertEquals("entry 15", text(log.get(0)));
+		assertEquals("entry 19", text(log.get(4)));
+
+		log.addEntry("entry 20", LogLevel.DEFAULT);
+		assertEquals("entry 16", text(log.get(0)));
+		assertEquals("entry 20", text(log.get(4)));
+	}
+
+	@Test
+	public void shouldGrowAgainWhenSetToUnlimited () {
+		log.setMaxEntries(3);
+		for (int i = 0; i < 5; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+		log.setMaxEntries(Console.UNLIMITED_ENTRIES);
+		for (int i = 5; i < 40; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+
+		assertEquals(38, log.size());
+		assertEquals("entry 2", text(log.get(0)));
+		assertEquals("entry 39", text(log.get(37)));
+	}
+
+	@Test
+	public void shouldBeEmptyAfterClear () {
+		log.setMaxEntries(4);
+		for (int i = 0; i < 6; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+		}
+		log.clear();
+		assertEquals(0, log.size());
+
+		log.addEntry("after", LogLevel.DEFAULT);
+		assertEquals(1, log.size());
+		assertEquals("after", text(log.get(0)));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void shouldRejectIndexOutOfRange () {
+		log.addEntry("entry", LogLevel.DEFAULT);
+		log.get(1);
+	}
+
+	@Test
+	public void shouldAppendOnlyNewEntriesToFile () throws IOException {
+		File file = File.createTempFile("console", ".log");
+		file.deleteOnExit();
+		FileHandle fh = new FileHandle(file);
+
+		for (int i = 0; i < 3000; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT, i);
+		}
+		assertTrue(log.printToFile(fh));
+		String[] lines = fh.readString().split("\n");
+		assertEquals(3000, lines.length);
+		assertEquals("0: entry 0", lines[0]);
+		assertEquals("2999: entry 2999", lines[2999]);
+
+		log.addEntry("new", LogLevel.ERROR, 3000);
+		assertTrue(log.printToFile(fh, true));
+		lines = fh.readString().split("\n");
+		assertEquals(3001, lines.length);
+		assertEquals("3000: Error: new", lines[3000]);
+
+		assertTrue(log.printToFile(fh, true));
+		assertEquals(3001, fh.readString().split("\n").length);
+	}
+
+	@Test
+	public void shouldCollapseConsecutiveRepeats () {
+		log.setCollapseRepeats(true);
+		log.addEntry("spam", LogLevel.ERROR, 1);
+		for (int i = 2; i <= 532; i++) {
+			log.addEntry("spam", LogLevel.ERROR, i);
+		}
+		log.addEntry("spam", LogLevel.DEFAULT, 600);
+		log.addEntry("spam", LogLevel.ERROR, 700);
+
+		assertEquals(3, log.size());
+		assertEquals("spam (x532)", text(log.get(0)));
+		assertEquals("1-532: Error: spam (x532)", log.get(0).toString());
+		assertEquals("spam", text(log.get(1)));
+		assertEquals(3, log.getNextSequence());
+	}
+
+	@Test
+	public void shouldStoreNullMessages () {
+		log.setCollapseRepeats(true);
+		log.setMaxBytes(1 << 20);
+		log.setSearchIndexed(true);
+		log.addEntry(null, LogLevel.DEFAULT);
+		log.addEntry(null, LogLevel.DEFAULT);
+		assertEquals(1, log.size());
+		assertEquals("null", log.get(0).getText());
+		assertEquals(2, log.get(0).getRepeatCount());
+	}
+
+	@Test
+	public void shouldCompareNullTextsForRepeats () {
+		LogEntry entry = new LogEntry(null, LogLevel.DEFAULT);
+		assertTrue(entry.isRepeatOf(null, LogLevel.DEFAULT));
+		assertFalse(entry.isRepeatOf("spam", LogLevel.DEFAULT));
+		assertFalse(new LogEntry("spam", LogLevel.DEFAULT).isRepeatOf(null, LogLevel.DEFAULT));
+	}
+
+	@Test
+	public void shouldEvictOldestEntriesWhenMaxBytesIsExceeded () {
+		log.addEntry("small", LogLevel.DEFAULT);
+		long small = log.getRetainedBytes();
+		log.clear();
+		assertEquals(0, log.getRetainedBytes());
+
+		log.setMaxBytes(small * 3);
+		for (int i = 0; i < 10; i++) {
+			log.addEntry("small", LogLevel.DEFAULT);
+		}
+		assertEquals(3, log.size());
+		assertEquals(small * 3, log.getRetainedBytes());
+
+		StringBuilder trace = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			trace.append("\tat frame ").append(i).append('\n');
+		}
+		log.addEntry(trace.toString(), LogLevel.ERROR);
+		assertEquals(1, log.size());
+		assertEquals(LogLevel.ERROR, log.get(0).getLevel());
+
+		log.addEntry("small", LogLevel.DEFAULT);
+		assertEquals(1, log.size());
+		assertEquals(small, log.getRetainedBytes());
+	}
+
+	@Test
+	public void shouldCombineMaxBytesWithMaxEntries () {
+		log.setMaxEntries(2);
+		log.setMaxBytes(1000000);
+		for (int i = 0; i < 10; i++) {
+			log.addEntry("small", LogLevel.DEFAULT);
+		}
+		assertEquals(2, log.size());
+
+		long two = log.getRetainedBytes();
+		log.setMaxBytes(two / 2);
+		assertEquals(1, log.size());
+		assertEquals(two / 2, log.getRetainedBytes());
+	}
+
+	@Test
+	public void shouldFindEntriesWithAndWithoutIndex () {
+		log.setMaxEntries(3);
+		log.addEntry("Loading Map", LogLevel.DEFAULT);
+		log.addEntry("map loaded", LogLevel.SUCCESS);
+		log.addEntry("player joined", LogLevel.DEFAULT);
+		log.addEntry("Map unloaded", LogLevel.DEFAULT);
+
+		LongArray found = new LongArray();
+		assertEquals(2, log.find("MAP", found));
+		assertEquals(1, found.get(0));
+		assertEquals(3, found.get(1));
+
+		log.setSearchIndexed(true);
+		found.clear();
+		assertEquals(2, log.find("map", found));
+		assertEquals(1, found.get(0));
+		assertEquals(3, found.get(1));
+
+		log.addEntry("another map", LogLevel.DEFAULT);
+		found.clear();
+		assertEquals(2, log.find("Map", found));
+		assertEquals(3, found.get(0));
+		assertEquals(4, found.get(1));
+
+		found.clear();
+		assertEquals(1, log.find("map unl", found));
+		assertEquals(0, log.find("dragon", found));
+
+		log.clear();
+		found.clear();
+		assertEquals(0, log.find("map", found));
+		log.addEntry("new map", LogLevel.DEFAULT);
+		assertEquals(1, log.find("map", found));
+		assertEquals(5, found.get(0));
+	}
+
+	@Test
+	public void shouldTakeImmutableSnapshots () {
+		log.setMaxEntries(3);
+		log.setCollapseRepeats(true);
+		log.addEntry("a", LogLevel.DEFAULT);
+		log.addEntry("b", LogLevel.DEFAULT);
+
+		LogSnapshot first = log.snapshot();
+		assertSame(first, log.snapshot());
+		assertEquals(2, first.size());
+		assertEquals(0, first.getFirstSequence());
+
+		log.addEntry("b", LogLevel.DEFAULT);
+		log.addEntry("c", LogLevel.DEFAULT);
+		log.addEntry("d", LogLevel.DEFAULT);
+		LogSnapshot second = log.snapshot();
+		assertEquals(2, first.size());
+		assertEquals(1, first.get(1).getRepeatCount());
+
+		assertEquals(3, second.size());
+		assertEquals(1, second.getFirstSequence());
+		assertEquals("b", second.get(0).getText());
+		assertEquals(2, second.get(0).getRepeatCount());
+		assertEquals("d", second.getBySequence(3).getText());
+		assertNull(second.getBySequence(0));
+
+		log.addEntry("e", LogLevel.DEFAULT);
+		LogSnapshot third = log.snapshot();
+		assertSame(second.getBySequence(2), third.getBySequence(2));
+
+		log.clear();
+		assertEquals(0, log.snapshot().size());
+		assertEquals(3, third.size());
+	}
+
+	@Test
+	public void shouldKeepSnapshotsIntactAcrossChunksAndEvictions () {
+		log.setMaxEntries(300);
+		LogSnapshot[] snapshots = new LogSnapshot[100];
+		for (int i = 0; i < 1000; i++) {
+			log.addEntry("entry " + i, LogLevel.DEFAULT);
+			if (i % 10 == 9) snapshots[i / 10] = log.snapshot();
+		}
+		for (int s = 0; s < snapshots.length; s++) {
+			LogSnapshot snapshot = snapshots[s];
+			long next = s * 10 + 10;
+			assertEquals(next, snapshot.getNextSequence());
+			assertEquals(Math.max(0, next - 300), snapshot.getFirstSequence());
+			for (int i = 0; i < snapshot.size(); i++) {
+				LogEntry entry = snapshot.get(i);
+				assertEquals(snapshot.getFirstSequence() + i, entry.getSequence());
+				assertEquals("entry " + entry.getSequence(), entry.getText());
+			}
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldNotResetSnapshotEntries () {
+		log.addEntry("a", LogLevel.DEFAULT);
+		log.snapshot().get(0).reset();
+	}
+}
@@ -0,0 +1,106 @@
+
+package com.strongjoshua.console.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+
+public class RollingFileSinkTest {
+	private FileHandle dir;
+
+	@Before
+	public void setUp () throws IOException {
+		File tmp = File.createTempFile("console", "");
+		tmp.delete();
+		dir = new FileHandle(tmp);
+		dir.mkdirs();
+	}
+
+	@After
+	public void tearDown () {
+		dir.deleteDirectory();
+	}
+
+	@Test
+	public void shouldWriteQueuedMessagesOnDispose () {
+		FileHandle file = dir.child("console.log");
+		RollingFileSink sink = new RollingFileSink(file);
+		sink.setFlushInterval(10000);
+		for (int i = 0; i < 1000; i++) {
+			sink.write("entry " + i, LogLevel.DEFAULT, i);
+		}
+		sink.write("failed", LogLevel.ERROR, 1000);
+		sink.dispose();
+
+		String[] lines = file.readString("UTF-8").split("\n");
+		assertEquals(1001, lines.length);
+		assertEquals("0: entry 0", lines[0]);
+		assertEquals("1000: Error: failed", lines[1000]);
+	}
+
+	@Test
+	public void shouldWriteMessagesOnFlush () {
+		FileHandle file = dir.child("console.log");
+		RollingFileSink sink = new RollingFileSink(file);
+		sink.setFlushInterval(10000);
+		sink.write("entry", LogLevel.DEFAULT, 0);
+		sink.flush();
+
+		assertEquals("0: entry\n", file.readString("UTF-8"));
+		sink.dispose();
+	}
+
+	@Test
+	public void shouldCompressRolledSegments () throws IOException {
+		FileHandle file = dir.child("console.log");
+		RollingFileSink sink = new RollingFileSink(file);
+		sink.setMaxFileSize(1024);
+		sink.setCompress(true);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			sink.write("entry " + i, LogLevel.DEFAULT, i);
+			expected.append(i).append(": entry ").append(i).append('\n');
+		}
+		sink.dispose();
+
+		FileHandle[] segments = dir.list(".deflate");
+		assertTrue(segments.length > 0);
+		long written = 0;
+		for (FileHandle segment : segments) {
+			InflaterInputStream in = new InflaterInputStream(segment.read());
+			try {
+				written += StreamUtils.copyStreamToByteArray(in).length;
+			} finally {
+				in.close();
+			}
+			assertTrue(segment.name().endsWith(".log.deflate"));
+		}
+		if (file.exists()) written += file.length();
+		assertEquals(expected.length(), written);
+	}
+
+	@Test(timeout = 5000)
+	public void shouldDropMessagesWhenTheFileCantBeWritten () {
+		FileHandle notADirectory = dir.child("file");
+		notADirectory.writeString("", false);
+		RollingFileSink sink = new RollingFileSink(notADirectory.child("console.log"), 4, LogOverflowPolicy.BLOCK);
+		for (int i = 0; i < 100; i++) {
+			sink.write("entry " + i, LogLevel.DEFAULT, i);
+		}
+		sink.flush();
+
+		assertTrue(sink.isFailed());
+		sink.write("dropped", LogLevel.DEFAULT, 100);
+		sink.dispose();
+	}
+}